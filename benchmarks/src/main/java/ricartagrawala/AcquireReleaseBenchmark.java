@@ -0,0 +1,38 @@
+package ricartagrawala;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Latence de bout en bout d'un acquire()/release() sans concurrence : le nœud 1 demande
+// la section critique aux N-1 autres et attend leurs REPLY. En mémoire, le coût est celui
+// de l'algorithme et des boîtes aux lettres ; en TCP, s'y ajoutent les sockets en boucle locale.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AcquireReleaseBenchmark {
+    @Param({ "3", "10", "100", "1000" })
+    public int nodes;
+
+    @Param({ "memory", "tcp" })
+    public String transport;
+
+    @Param({ "RICART_AGRAWALA" })
+    public String protocol;
+
+    private Process node;
+
+    @Setup
+    public void setUp() throws IOException {
+        node = BenchmarkCluster.start(nodes, transport, Protocol.valueOf(protocol)).node(1);
+    }
+
+    @Benchmark
+    public void acquireRelease() {
+        node.acquire().join();
+        node.release();
+    }
+}
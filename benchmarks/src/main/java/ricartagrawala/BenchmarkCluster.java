@@ -0,0 +1,54 @@
+package ricartagrawala;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Grappe de processus dans la JVM du benchmark, reliés en mémoire ou par TCP en boucle locale.
+// Sans journal ni console : on mesure l'algorithme et le transport, pas l'affichage.
+final class BenchmarkCluster {
+    // Ports TCP attribués à la suite (-Dra.bench.port), même si plusieurs grappes partagent la JVM
+    private static final AtomicInteger NEXT_PORT = new AtomicInteger(Integer.getInteger("ra.bench.port", 20000));
+
+    final Map<Integer, Process> nodes = new TreeMap<>();
+
+    private BenchmarkCluster() {
+    }
+
+    static BenchmarkCluster start(int count, String transport, Protocol protocol) throws IOException {
+        boolean tcp = transport.equals("tcp");
+        int basePort = tcp ? NEXT_PORT.getAndAdd(count) : 0;
+        Map<Integer, String> peers = new HashMap<>();
+        for (int i = 1; i <= count; i++) peers.put(i, tcp ? "localhost:" + (basePort + i) : "mem:" + i);
+        Map<Integer, Process> network = new ConcurrentHashMap<>();
+        BenchmarkCluster cluster = new BenchmarkCluster();
+        for (int i = 1; i <= count; i++) {
+            Process p = new Process(i, peers, new CountingListener(), tcp ? new TcpTransport() : new InMemoryTransport(network));
+            p.protocol = protocol;
+            p.console = false;
+            p.logging = false;
+            p.transport.start(p);
+            cluster.nodes.put(i, p);
+        }
+        return cluster;
+    }
+
+    Process node(int id) {
+        return nodes.get(id);
+    }
+
+    // Transport qui ne fait rien : isole le coût des décisions de l'algorithme
+    static final class NullTransport implements Transport {
+        public void start(Process p) {
+        }
+
+        public void send(Message msg, int destId) {
+        }
+
+        public void onCrash() {
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ricartagrawala;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Débit de décision de handleMessage pour un REQUEST, sans réseau : réponse immédiate
+// (nœud au repos) ou REQUEST différé (nœud en attente avec une demande plus ancienne).
+// Maekawa n'est pas mesuré ici : un arbitre met en file chaque REQUEST d'un pair déjà servi.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandleMessageBenchmark {
+    @Param({ "3", "10", "100", "1000" })
+    public int nodes;
+
+    @Param({ "IDLE", "REQUESTING" })
+    public String state;
+
+    @Param({ "RICART_AGRAWALA", "ROUCAIROL_CARVALHO" })
+    public String protocol;
+
+    private Process process;
+    // Deux demandes par pair, en alternance : une demande identique à celle déjà servie
+    // serait écartée comme doublon sans que rien ne soit décidé
+    private Message[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<Integer, String> peers = new HashMap<>();
+        for (int i = 1; i <= nodes; i++) peers.put(i, "bench:" + i);
+        process = new Process(1, peers, new CountingListener(), new BenchmarkCluster.NullTransport());
+        process.protocol = Protocol.valueOf(protocol);
+        process.console = false;
+        process.logging = false;
+        // Demande jamais satisfaite (pas de REPLY) : le nœud reste en attente
+        if (state.equals("REQUESTING")) process.acquire();
+        requests = new Message[2 * (nodes - 1)];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new Message(Message.Type.REQUEST, 2 + i % (nodes - 1), Long.MAX_VALUE / 4 + i / (nodes - 1));
+        }
+    }
+
+    @Benchmark
+    public void request() {
+        process.handleMessage(requests[next]);
+        if (++next == requests.length) next = 0;
+    }
+}
@@ -0,0 +1,41 @@
+package ricartagrawala;
+
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Encodage et décodage d'une trame de 32 octets dans un tampon direct, comme PeerLink
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCodecBenchmark {
+    private final ByteBuffer out = ByteBuffer.allocateDirect(MessageCodec.FRAME_SIZE);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(MessageCodec.FRAME_SIZE);
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        message = new Message(Message.Type.REQUEST_REPLY, 7, 123_456_789L);
+        message.lockId = 3;
+        message.incarnation = 42;
+        message.flags = Message.READ;
+        MessageCodec.encode(message, in);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        out.clear();
+        MessageCodec.encode(message, out);
+        return out;
+    }
+
+    @Benchmark
+    public Message decode() throws StreamCorruptedException {
+        in.rewind();
+        return MessageCodec.decode(in);
+    }
+}
@@ -0,0 +1,37 @@
+package ricartagrawala;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Chemin d'envoi TCP en boucle locale : encodage des trames, écriture groupée et
+// contre-pression du récepteur, qui décode et traite chaque message. Mesuré en synchrone
+// (TcpTransport.write), sans l'Outbox dont la file ne bornerait pas le producteur.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendPathBenchmark {
+    @Param({ "1", "16" })
+    public int batch;
+
+    private TcpTransport sender;
+    private List<Message> messages;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkCluster cluster = BenchmarkCluster.start(2, "tcp", Protocol.RICART_AGRAWALA);
+        sender = (TcpTransport) cluster.node(1).transport;
+        messages = new ArrayList<>();
+        for (int i = 0; i < batch; i++) messages.add(new Message(Message.Type.REPLY, 1, i));
+    }
+
+    @Benchmark
+    public void write() {
+        sender.write(2, messages);
+    }
+}
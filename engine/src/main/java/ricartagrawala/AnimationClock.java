@@ -0,0 +1,42 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.List;
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+
+// Horloge d'animation unique de l'interface : un seul Timer Swing fait avancer ensemble
+// toutes les animations actives, et s'arrête quand il n'y en a plus. Tout se passe sur l'EDT.
+class AnimationClock {
+    interface Animation {
+        // Avance l'animation à la date donnée (ms) et redessine sa zone ; faux quand elle est finie
+        boolean tick(long now);
+    }
+
+    static final AnimationClock SHARED = new AnimationClock(50);
+
+    private final List<Animation> active = new ArrayList<>();
+    private final Timer timer;
+
+    AnimationClock(int frameMillis) {
+        timer = new Timer(frameMillis, e -> tick());
+    }
+
+    void start(Animation animation) {
+        if (!active.contains(animation)) active.add(animation);
+        if (!timer.isRunning()) timer.start();
+    }
+
+    void stop(Animation animation) {
+        active.remove(animation);
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (Animation animation : active.toArray(new Animation[0])) {
+            if (!animation.tick(now)) active.remove(animation);
+        }
+        if (active.isEmpty()) timer.stop();
+    }
+}
@@ -0,0 +1,38 @@
+package ricartagrawala;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Couche de fond statique rendue une fois dans une image compatible avec l'écran (que
+// Java2D garde en mémoire vidéo), puis simplement recopiée à chaque repaint. Elle n'est
+// recalculée que lorsque la taille du composant change.
+class BackgroundCache {
+    interface Painter {
+        void paint(Graphics2D g, int width, int height);
+    }
+
+    private final Painter painter;
+    private BufferedImage image;
+
+    BackgroundCache(Painter painter) {
+        this.painter = painter;
+    }
+
+    void paint(Graphics g, Component c) {
+        int width = c.getWidth(), height = c.getHeight();
+        if (width <= 0 || height <= 0) return;
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            GraphicsConfiguration gc = c.getGraphicsConfiguration();
+            image = gc != null ? gc.createCompatibleImage(width, height, Transparency.OPAQUE)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = image.createGraphics();
+            try {
+                painter.paint(g2d, width, height);
+            } finally {
+                g2d.dispose();
+            }
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+}
@@ -0,0 +1,22 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Puits sans affichage : compte seulement les entrées en section critique
+class CountingListener implements ProcessListener {
+    final Map<Integer, LongAdder> entries = new ConcurrentHashMap<>();
+
+    public void appendLog(int id, EventLog.Kind kind, Message.Type type, String log) {}
+
+    public void updateState(int id, String state, boolean hasToken) {}
+
+    public void announceToken(int id) {
+        entries.computeIfAbsent(id, k -> new LongAdder()).increment();
+    }
+
+    public long total() {
+        return entries.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+}
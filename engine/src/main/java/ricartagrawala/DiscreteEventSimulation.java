@@ -0,0 +1,186 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.util.*;
+
+// Simulation à événements discrets : horloge virtuelle (ms) et file de priorité
+// d'événements (livraison de message, réflexion, maintien de la SC). Tout tourne
+// dans un seul thread à partir d'une graine, donc deux exécutions sont identiques.
+class DiscreteEventSimulation {
+    long now = 0;
+    private long nextSeq = 0;
+    private final PriorityQueue<SimEvent> events = new PriorityQueue<>();
+    private final Random random;
+    final Map<Integer, Process> nodes = new TreeMap<>();
+    // Dernière date de livraison par couple (émetteur, destinataire) : canaux FIFO comme TCP
+    private final Map<Long, Long> lastDelivery = new HashMap<>();
+
+    // Paramètres (ms virtuelles), même charge par défaut que Process.start()
+    long minLatency = 1, maxLatency = 5;
+    Workload workload = Workload.DEMO;
+    int lockCount = 1;  // ressources indépendantes, choisies uniformément à chaque demande
+    double readRatio = 0;  // proportion des demandes en lecture
+
+    // Résultats
+    long arrivals, entries, messages, totalWait, maxWait, violations;
+    final LatencyHistogram waits = new LatencyHistogram();  // en ms virtuelles
+    // Nombre de rédacteurs et de lecteurs en section critique, par verrou
+    private final Map<Integer, Integer> holders = new HashMap<>();
+    private final Map<Integer, Integer> readers = new HashMap<>();
+
+    static class SimEvent implements Comparable<SimEvent> {
+        final long time;
+        final long seq;
+        final Runnable action;
+
+        SimEvent(long time, long seq, Runnable action) {
+            this.time = time;
+            this.seq = seq;
+            this.action = action;
+        }
+
+        public int compareTo(SimEvent o) {
+            return time != o.time ? Long.compare(time, o.time) : Long.compare(seq, o.seq);
+        }
+    }
+
+    public DiscreteEventSimulation(int count, long seed) {
+        this(count, seed, Protocol.RICART_AGRAWALA);
+    }
+
+    public DiscreteEventSimulation(int count, long seed, Protocol protocol) {
+        random = new Random(seed);
+        Map<Integer, String> peers = new HashMap<>();
+        for (int i = 1; i <= count; i++) peers.put(i, "sim:" + i);
+        ProcessListener silent = new CountingListener();
+        for (int i = 1; i <= count; i++) {
+            Process p = new Process(i, peers, silent, new SimulatedTransport(this, i));
+            p.protocol = protocol;
+            p.console = false;
+            p.logging = false;
+            nodes.put(i, p);
+        }
+    }
+
+    void schedule(long delay, Runnable action) {
+        events.add(new SimEvent(now + delay, nextSeq++, action));
+    }
+
+    private long uniform(long min, long max) {
+        return min + (max > min ? (long) (random.nextDouble() * (max - min)) : 0);
+    }
+
+    void send(Message msg, int from, int destId) {
+        messages++;
+        long key = ((long) from << 32) | destId;
+        long at = Math.max(now + uniform(minLatency, maxLatency), lastDelivery.getOrDefault(key, 0L));
+        lastDelivery.put(key, at);
+        schedule(at - now, () -> {
+            Process dest = nodes.get(destId);
+            if (!dest.isAlive) return;
+            dest.handleMessage(msg);
+        });
+    }
+
+    // Exécute la simulation jusqu'à la date virtuelle donnée
+    public void run(long until) {
+        int rank = 0;
+        for (Process p : nodes.values()) arrive(p, workload.arrivals(rank++, nodes.size()));
+        while (!events.isEmpty() && events.peek().time <= until) {
+            SimEvent e = events.poll();
+            now = e.time;
+            e.action.run();
+        }
+        now = until;
+    }
+
+    // Prochaine demande du nœud ; en boucle ouverte, la suivante est aussitôt programmée
+    private void arrive(Process p, Workload.Arrivals source) {
+        schedule(source.next(random), () -> {
+            int lockId = lockCount == 1 ? 0 : random.nextInt(lockCount);
+            boolean shared = readRatio > 0 && random.nextDouble() < readRatio;
+            long arrivedAt = now;
+            arrivals++;
+            (shared ? p.acquireShared(lockId) : p.acquire(lockId)).thenRun(() -> entered(p, lockId, shared, arrivedAt, source));
+            if (workload.openLoop()) arrive(p, source);
+        });
+    }
+
+    private void entered(Process p, int lockId, boolean shared, long arrivedAt, Workload.Arrivals source) {
+        Map<Integer, Integer> mine = shared ? readers : holders;
+        mine.merge(lockId, 1, Integer::sum);
+        int writers = holders.getOrDefault(lockId, 0);
+        if (writers > 1 || (writers == 1 && readers.getOrDefault(lockId, 0) > 0)) violations++;
+        long wait = now - arrivedAt;
+        entries++;
+        totalWait += wait;
+        maxWait = Math.max(maxWait, wait);
+        waits.record(wait);
+        schedule(workload.nextHold(random), () -> {
+            mine.merge(lockId, -1, Integer::sum);
+            p.release(lockId);
+            if (!workload.openLoop()) arrive(p, source);
+        });
+    }
+
+    // Messages par entrée et attente moyenne en fonction de N pour chaque protocole, à charge
+    // par nœud constante (chaque nœud occupe la ressource ~0,3 % du temps)
+    public static void compareProtocols(int[] sizes, long seed, java.io.PrintStream out) {
+        Protocol[] protocols = Protocol.values();
+        StringBuilder header = new StringBuilder("    N");
+        for (Protocol protocol : protocols) header.append(String.format(" | %-20s", protocol));
+        out.println(header);
+        StringBuilder units = new StringBuilder("     ");
+        for (int i = 0; i < protocols.length; i++) units.append(" | msg/SC  attente (ms)");
+        out.println(units);
+        for (int count : sizes) {
+            StringBuilder line = new StringBuilder(String.format("%5d", count));
+            for (Protocol protocol : protocols) {
+                DiscreteEventSimulation sim = new DiscreteEventSimulation(count, seed, protocol);
+                sim.workload = Workload.closedLoop(Workload.uniform(2000, 4000), Workload.uniform(5, 15));
+                // Environ 3000 entrées quel que soit N
+                sim.run(3000L * 3000 / count);
+                line.append(String.format(" | %6.1f  %11.1f%s", (double) sim.messages / sim.entries,
+                        (double) sim.totalWait / sim.entries, sim.violations > 0 ? "!" : " "));
+            }
+            out.println(line);
+        }
+    }
+
+    // Débit atteint et attente en fonction de la charge offerte, en boucle ouverte. La capacité
+    // nominale est celle de la ressource seule (1000 / durée moyenne de SC) ; la saturation est
+    // le premier débit offert dont moins de 95 % est servi, l'arriéré croissant ensuite sans fin.
+    public static void loadSweep(int count, Workload base, double meanHold, Protocol protocol, long seed,
+            long millis, java.io.PrintStream out) {
+        double capacity = 1000 / meanHold;
+        out.printf("%s, %d processus, %s, SC de %.0f ms en moyenne (capacité nominale %.1f SC/s)%n",
+                protocol, count, base.kind, meanHold, capacity);
+        out.println(" offert/s  atteint/s  charge |  attente moy.   p50 (ms)   p99 (ms)  max (ms) |  arriéré");
+        double saturation = Double.NaN;
+        for (double load : new double[] { 0.1, 0.25, 0.5, 0.75, 0.85, 0.9, 0.95, 1.0, 1.1, 1.25 }) {
+            DiscreteEventSimulation sim = new DiscreteEventSimulation(count, seed, protocol);
+            sim.workload = base.withRate(load * capacity);
+            sim.run(millis);
+            double offered = sim.arrivals * 1000.0 / millis;
+            double achieved = sim.entries * 1000.0 / millis;
+            long[] counts = new long[LatencyHistogram.BUCKETS];
+            sim.waits.addTo(counts);
+            out.printf("%9.2f  %9.2f  %5.0f%% | %13.1f  %9d  %9d  %8d | %8d%s%n", offered, achieved, load * 100,
+                    sim.entries == 0 ? 0.0 : (double) sim.totalWait / sim.entries,
+                    Math.min(LatencyHistogram.percentile(counts, 0.5), sim.maxWait),
+                    Math.min(LatencyHistogram.percentile(counts, 0.99), sim.maxWait),
+                    sim.maxWait, sim.arrivals - sim.entries, sim.violations > 0 ? " !" : "");
+            if (Double.isNaN(saturation) && achieved < 0.95 * offered) saturation = offered;
+        }
+        out.println(Double.isNaN(saturation) ? "Pas de saturation dans la plage balayée"
+                : String.format("Saturation vers %.2f SC/s offertes", saturation));
+    }
+
+    public String report() {
+        return String.format("%s, %d processus, %.1f h virtuelles : %d entrées en SC, %.1f messages/entrée, "
+                + "attente moyenne %.0f ms (max %d ms), violations d'exclusion : %d",
+                nodes.values().iterator().next().protocol, nodes.size(), now / 3_600_000.0, entries,
+                entries == 0 ? 0.0 : (double) messages / entries,
+                entries == 0 ? 0.0 : (double) totalWait / entries, maxWait, violations);
+    }
+}
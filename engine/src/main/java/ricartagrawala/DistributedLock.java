@@ -0,0 +1,141 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Verrou d'une ressource sur un nœud. Chaque verrou a son propre moniteur, donc le
+// traitement d'un verrou ne bloque jamais celui d'un autre. La file des acquire()
+// locaux est commune ; les sous-classes implémentent l'algorithme.
+abstract class DistributedLock {
+    final Process owner;
+    final int lockId;
+    volatile boolean requestingCS = false;
+    volatile boolean inCS = false;
+    long requestTimestamp;  // horodatage de notre demande en cours
+    boolean shared;         // notre demande en cours est une lecture
+    // Complété exactement à l'arrivée de la dernière permission attendue, toujours hors du
+    // moniteur du verrou : ses continuations ne bloquent pas le traitement des messages
+    volatile CompletableFuture<Void> permission = CompletableFuture.completedFuture(null);
+    // Demandes locales en attente d'acquire() ; le nœud ne fait qu'une demande à la fois par verrou
+    private final Queue<Acquirer> acquirers = new ArrayDeque<>();
+    private boolean lockBusy = false;
+    // Un acquire() local est entré et n'a pas encore été libéré ; protégé par acquirers.
+    // Distinct de inCS, que la panne avec journal efface sans que l'appelant l'ait su.
+    private boolean holding = false;
+    // System.nanoTime() de la demande et de l'entrée, pour NodeMetrics
+    private long requestedAt, enteredAt;
+
+    private static class Acquirer {
+        final CompletableFuture<Void> entered = new CompletableFuture<>();
+        final boolean shared;
+
+        Acquirer(boolean shared) {
+            this.shared = shared;
+        }
+    }
+
+    public DistributedLock(Process owner, int lockId) {
+        this.owner = owner;
+        this.lockId = lockId;
+    }
+
+    // Le futur est complété à l'entrée en section critique, dans le thread qui a reçu la
+    // dernière permission (utiliser les variantes *Async pour un traitement long).
+    // Les appels concurrents sur un même nœud sont servis dans l'ordre.
+    public CompletableFuture<Void> acquire() {
+        return enqueue(new Acquirer(false));
+    }
+
+    public CompletableFuture<Void> acquireShared() {
+        return enqueue(new Acquirer(true));
+    }
+
+    private CompletableFuture<Void> enqueue(Acquirer acquirer) {
+        synchronized (acquirers) {
+            if (lockBusy) {
+                acquirers.add(acquirer);
+                return acquirer.entered;
+            }
+            lockBusy = true;
+        }
+        startAcquire(acquirer);
+        return acquirer.entered;
+    }
+
+    // Sort de la section critique obtenue par acquire() ou acquireShared() et lance la demande locale suivante
+    public void release() {
+        synchronized (acquirers) {
+            if (!holding) throw new IllegalStateException("P" + owner.id + " ne détient pas le verrou " + lockId);
+            holding = false;
+        }
+        owner.metrics.hold.record(System.nanoTime() - enteredAt);
+        exitCS();
+        Acquirer next;
+        synchronized (acquirers) {
+            next = acquirers.poll();
+            if (next == null) lockBusy = false;
+        }
+        if (next != null) startAcquire(next);
+    }
+
+    private void startAcquire(Acquirer acquirer) {
+        requestedAt = System.nanoTime();
+        requestCS(acquirer.shared);
+        owner.trace(EventLog.Kind.REQUESTED, lockId, 0, null, requestTimestamp);
+        permission.thenRun(() -> {
+            enterCS();
+            synchronized (acquirers) {
+                holding = true;
+            }
+            acquirer.entered.complete(null);
+        });
+    }
+
+    abstract void requestCS(boolean shared);
+
+    abstract void exitCS();
+
+    abstract void handle(Message msg);
+
+    // Le pair est soupçonné en panne : on cesse de l'attendre
+    abstract void onSuspect(int peerId);
+
+    // Le pair soupçonné s'est de nouveau manifesté
+    abstract void onRecover(int peerId);
+
+    // Redémarrage du nœud : la demande en cours est renvoyée à ceux dont on attend encore la réponse
+    abstract void onRestart();
+
+    // Panne avec journal : l'état en mémoire est perdu. Seul RicartAgrawalaLock journalise le
+    // sien ; les autres le gardent.
+    void crash() {}
+
+    // Redémarrage avec journal : reprise de la demande relue
+    void recover(WriteAheadLog.LockState state) {}
+
+    // Bloque sans scrutation ni moniteur jusqu'à la dernière permission
+    void enterCS() {
+        permission.join();
+        enteredAt = System.nanoTime();
+        owner.metrics.entered(enteredAt - requestedAt);
+        synchronized (this) {
+            inCS = true;
+            log(shared ? EventLog.Kind.ENTER_SHARED : EventLog.Kind.ENTER);
+        }
+        owner.listener.announceToken(owner.id);
+    }
+
+    Message message(Message.Type type, long timestamp) {
+        Message msg = new Message(type, owner.id, timestamp);
+        msg.lockId = lockId;
+        return msg;
+    }
+
+    void log(EventLog.Kind kind) {
+        owner.log(kind, lockId, 0, null, 0);
+    }
+
+    void logReceived(Message msg) {
+        owner.log(EventLog.Kind.RECEIVED, lockId, msg.senderId, msg.type, msg.timestamp);
+    }
+}
@@ -0,0 +1,144 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.util.concurrent.atomic.*;
+
+// Journal asynchrone de tous les processus de la JVM. Les producteurs (threads de
+// l'algorithme, souvent sous le moniteur d'un verrou) réservent une case d'un anneau
+// préalloué par CAS et y recopient quelques champs : ni chaîne, ni allocation, ni attente.
+// Un thread unique formate les événements pour la console et le ProcessListener.
+// Anneau plein : l'événement est perdu et compté, l'algorithme n'est jamais ralenti.
+class EventLog implements Runnable {
+    // SENT, DEFERRED et REQUESTED ne vont qu'à la trace binaire (voir Process.trace)
+    enum Kind { RECEIVED, ENTER, ENTER_SHARED, EXIT, CRASH, RESTART, SEND_FAILED, SENT, DEFERRED, REQUESTED, SUSPECT, RECOVERED }
+
+    // Capacité (-Dra.log.capacity, puissance de 2) ; -Dra.log.pacing.ms espace l'affichage
+    // des événements pour qu'il reste lisible, sans jamais ralentir les processus
+    static final EventLog INSTANCE = new EventLog(Integer.getInteger("ra.log.capacity", 1 << 16),
+            Integer.getInteger("ra.log.pacing.ms", 0));
+
+    private static final class Slot {
+        volatile long published;  // numéro de l'événement + 1 une fois la case remplie
+        Process owner;
+        Kind kind;
+        int lockId;
+        int peer;
+        Message.Type type;
+        long timestamp;
+        long clock;
+    }
+
+    private final Slot[] ring;
+    private final int mask;
+    private final long pacingMillis;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private final IdleWait idle = new IdleWait();
+    private final Thread consumer;
+    final LongAdder dropped = new LongAdder();
+    private final PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+    private final StringBuilder line = new StringBuilder(128);
+
+    EventLog(int capacity, long pacingMillis) {
+        ring = new Slot[Integer.highestOneBit(Math.max(capacity, 2))];
+        for (int i = 0; i < ring.length; i++) ring[i] = new Slot();
+        mask = ring.length - 1;
+        this.pacingMillis = pacingMillis;
+        consumer = new Thread(this, "event-log");
+        consumer.setDaemon(true);
+        consumer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(out::flush));
+    }
+
+    void record(Process owner, Kind kind, int lockId, int peer, Message.Type type, long timestamp) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed >= ring.length) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+        Slot slot = ring[(int) seq & mask];
+        slot.owner = owner;
+        slot.kind = kind;
+        slot.lockId = lockId;
+        slot.peer = peer;
+        slot.type = type;
+        slot.timestamp = timestamp;
+        slot.clock = owner.clock.get();
+        slot.published = seq + 1;
+        idle.wake(consumer);
+    }
+
+    @Override
+    public void run() {
+        long lost = 0;
+        while (true) {
+            long seq = consumed;
+            Slot slot = ring[(int) seq & mask];
+            if (slot.published != seq + 1) {
+                long total = dropped.sum();
+                if (total > lost) {
+                    out.println("[journal] " + (total - lost) + " événements perdus (anneau plein)");
+                    lost = total;
+                }
+                out.flush();
+                idle.park(() -> slot.published != seq + 1);
+                continue;
+            }
+            Process owner = slot.owner;
+            Kind kind = slot.kind;
+            Message.Type type = slot.type;
+            String text = format(slot);
+            slot.owner = null;
+            consumed = seq + 1;
+            try {
+                if (owner.console) {
+                    out.print('P');
+                    out.print(owner.id);
+                    out.print(' ');
+                    out.println(text);
+                }
+                owner.listener.appendLog(owner.id, kind, type, text);
+                if (pacingMillis > 0) Thread.sleep(pacingMillis);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private String format(Slot e) {
+        line.setLength(0);
+        return describe(line, e.kind, e.lockId, e.peer, e.type, e.timestamp, e.clock).toString();
+    }
+
+    // Texte d'un événement, partagé avec le rejeu des traces binaires
+    static StringBuilder describe(StringBuilder b, Kind kind, int lockId, int peer, Message.Type type, long timestamp, long clock) {
+        b.append("[T=").append(clock).append("] ");
+        if (lockId != 0) b.append("[verrou ").append(lockId).append("] ");
+        switch (kind) {
+            case RECEIVED:
+                b.append("reçu ").append(type).append(" de P").append(peer).append(" [T=").append(timestamp).append(']');
+                break;
+            case SENT:
+                b.append("envoie ").append(type).append(" à P").append(peer).append(" [T=").append(timestamp).append(']');
+                break;
+            case DEFERRED:
+                b.append("diffère la demande de P").append(peer).append(" [T=").append(timestamp).append(']');
+                break;
+            case REQUESTED: b.append("demande la section critique [T=").append(timestamp).append(']'); break;
+            case ENTER: b.append("entre en section critique - JETON CHEZ MOI"); break;
+            case ENTER_SHARED: b.append("entre en section critique en lecture"); break;
+            case EXIT: b.append("sort de section critique"); break;
+            case CRASH: b.append("tombe en panne (manuelle)"); break;
+            case RESTART: b.append("redémarrage manuel"); break;
+            case SEND_FAILED: b.append("Erreur envoi vers ").append(peer).append(" (peut-être en panne)"); break;
+            case SUSPECT: b.append("soupçonne P").append(peer).append(" en panne, ne l'attend plus"); break;
+            case RECOVERED: b.append("P").append(peer).append(" répond de nouveau"); break;
+        }
+        return b;
+    }
+}
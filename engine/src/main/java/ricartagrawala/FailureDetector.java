@@ -0,0 +1,96 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.List;
+import java.awt.*;
+
+// Détecteur de pannes par délai. Toutes les -Dra.heartbeat.ms (500 par défaut, 0 le désactive),
+// un nœud envoie un HEARTBEAT aux pairs à qui il n'a rien envoyé depuis le tour précédent :
+// le trafic de l'algorithme tient lieu de battement de cœur. Tout message reçu est un signe de
+// vie ; un pair muet depuis -Dra.suspect.ms (quatre intervalles par défaut) est soupçonné, et les
+// verrous cessent de l'attendre jusqu'à ce qu'on l'entende de nouveau. Le temps est compté en
+// tours, pour qu'enregistrer un envoi ou une réception ne coûte qu'une écriture.
+// Un soupçon à tort (pair seulement lent) peut laisser deux nœuds en section critique : le
+// délai doit rester grand devant les latences du réseau.
+class FailureDetector implements Runnable {
+    static final long INTERVAL_MS = Long.getLong("ra.heartbeat.ms", 500);
+    static final long TIMEOUT_MS = Long.getLong("ra.suspect.ms", 4 * INTERVAL_MS);
+
+    // Un thread pour tous les processus de la JVM : les soupçons et les retours d'un nœud
+    // y sont traités dans l'ordre
+    static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "failure-detector");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final class Peer {
+        volatile long heard;  // dernier tour où l'on a reçu un message du pair
+        volatile long sent;   // dernier tour où on lui a envoyé un message
+        final AtomicBoolean suspected = new AtomicBoolean();
+    }
+
+    private final Process owner;
+    private final Map<Integer, Peer> peers = new HashMap<>();
+    private final long timeoutTicks;
+    private volatile long tick;
+
+    private FailureDetector(Process owner) {
+        this.owner = owner;
+        for (int peerId : owner.peers.keySet()) {
+            if (peerId != owner.id) peers.put(peerId, new Peer());
+        }
+        timeoutTicks = Math.max(2, (TIMEOUT_MS + INTERVAL_MS - 1) / INTERVAL_MS);
+    }
+
+    static FailureDetector start(Process owner) {
+        FailureDetector detector = new FailureDetector(owner);
+        TIMER.scheduleAtFixedRate(detector, INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return detector;
+    }
+
+    // Vrai si le pair était soupçonné : à l'appelant d'appeler owner.recover
+    boolean heard(int peerId) {
+        Peer p = peers.get(peerId);
+        if (p == null) return false;
+        p.heard = tick;
+        return p.suspected.get() && p.suspected.compareAndSet(true, false);
+    }
+
+    void sent(int peerId) {
+        Peer p = peers.get(peerId);
+        if (p != null) p.sent = tick;
+    }
+
+    // Le silence des pairs pendant notre panne ne compte pas
+    void restart() {
+        TIMER.execute(() -> {
+            for (Peer p : peers.values()) p.heard = tick;
+        });
+    }
+
+    @Override
+    public void run() {
+        // Un nœud en panne n'entend ni n'envoie rien : il ne soupçonne personne
+        if (!owner.isAlive) return;
+        try {
+            long now = ++tick;
+            Map<Integer, List<Message>> heartbeats = new HashMap<>();
+            Message beat = new Message(Message.Type.HEARTBEAT, owner.id, 0);
+            beat.incarnation = owner.incarnation;
+            List<Message> heartbeat = List.of(beat);
+            for (Map.Entry<Integer, Peer> e : peers.entrySet()) {
+                Peer p = e.getValue();
+                if (now - p.heard > timeoutTicks && p.suspected.compareAndSet(false, true)) owner.suspect(e.getKey());
+                if (p.sent < now - 1) heartbeats.put(e.getKey(), heartbeat);
+            }
+            for (int i = 0; i < heartbeats.size(); i++) owner.metrics.sent(Message.Type.HEARTBEAT);
+            if (!heartbeats.isEmpty()) owner.transport.sendBatch(heartbeats);
+        } catch (RuntimeException e) {
+            // Une exception annulerait les tours suivants
+            e.printStackTrace();
+        }
+    }
+}
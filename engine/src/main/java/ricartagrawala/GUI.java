@@ -0,0 +1,361 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+
+class GUI implements ProcessListener {
+    JFrame frame;
+    Map<Integer, ProcessPanel> processPanels = new HashMap<>();
+    Map<Integer, JButton> panneButtons = new HashMap<>();
+    // Alimentées par le thread d'EventLog, recopiées à l'écran par logTimer
+    Map<Integer, LogView> logs = new ConcurrentHashMap<>();
+    Timer logTimer = new Timer(LogView.FRAME_MILLIS, e -> flushLogs());
+    Map<Integer, Process> processes = new HashMap<>();
+    JButton startButton;
+    boolean started = false;
+
+    public GUI() {
+        frame = new JFrame("🚀 Simulation Ricart & Agrawala - Interface Moderne");
+        frame.setSize(1200, 900);
+        frame.setLayout(new BorderLayout());
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        
+        setupHeader();
+        setupMainPanel();
+        logTimer.start();
+    }
+
+    // Dernières lignes du log d'un processus. Le thread d'EventLog y écrit sans passer par
+    // l'EDT ; à chaque image, une vue modifiée est recopiée d'un bloc dans sa zone de texte.
+    static class LogView {
+        static final int MAX_LINES = 50;
+        static final int FRAME_MILLIS = 40;
+
+        final JTextArea area;
+        private final String[] lines = new String[MAX_LINES];
+        private int next, count;
+        private boolean dirty;
+
+        LogView(JTextArea area) {
+            this.area = area;
+        }
+
+        synchronized void add(String line) {
+            lines[next] = line;
+            next = (next + 1) % MAX_LINES;
+            if (count < MAX_LINES) count++;
+            dirty = true;
+        }
+
+        // Sur l'EDT
+        void flush() {
+            String text;
+            synchronized (this) {
+                if (!dirty) return;
+                dirty = false;
+                StringBuilder b = new StringBuilder(count * 64);
+                for (int i = next - count; i < next; i++) b.append(lines[Math.floorMod(i, MAX_LINES)]).append('\n');
+                text = b.toString();
+            }
+            area.setText(text);
+            area.setCaretPosition(text.length());
+        }
+    }
+
+    private void flushLogs() {
+        for (LogView view : logs.values()) view.flush();
+    }
+    
+    private void setupHeader() {
+        // Gradient de fond pour l'en-tête
+        BackgroundCache background = new BackgroundCache((g2d, width, height) -> {
+            g2d.setPaint(new GradientPaint(
+                0, 0, new Color(72, 61, 139),
+                width, height, new Color(123, 104, 238)
+            ));
+            g2d.fillRect(0, 0, width, height);
+        });
+        JPanel headerPanel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                background.paint(g, this);
+            }
+        };
+        headerPanel.setLayout(new BorderLayout());
+        headerPanel.setPreferredSize(new Dimension(0, 80));
+        
+        JLabel title = new JLabel(" SIMULATION RICART & AGRAWALA", JLabel.CENTER);
+        title.setFont(new Font("Arial", Font.BOLD, 24));
+        title.setForeground(Color.WHITE);
+        
+        startButton = new JButton(" DÉMARRER LA SIMULATION") {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                
+                Color baseColor = new Color(50, 205, 50);
+                Color lighter = baseColor.brighter();
+                Color darker = baseColor.darker();
+                
+                if (getModel().isPressed()) {
+                    GradientPaint gradient = new GradientPaint(0, 0, darker, 0, getHeight(), lighter);
+                    g2d.setPaint(gradient);
+                } else if (getModel().isRollover()) {
+                    GradientPaint gradient = new GradientPaint(0, 0, lighter, 0, getHeight(), baseColor);
+                    g2d.setPaint(gradient);
+                } else {
+                    GradientPaint gradient = new GradientPaint(0, 0, baseColor, 0, getHeight(), darker);
+                    g2d.setPaint(gradient);
+                }
+                
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
+                
+                // Texte
+                g2d.setColor(Color.WHITE);
+                g2d.setFont(getFont());
+                FontMetrics fm = g2d.getFontMetrics();
+                int textX = (getWidth() - fm.stringWidth(getText())) / 2;
+                int textY = (getHeight() + fm.getAscent()) / 2 - 2;
+                g2d.drawString(getText(), textX, textY);
+            }
+        };
+        startButton.setFont(new Font("Arial", Font.BOLD, 14));
+        startButton.setFocusPainted(false);
+        startButton.setBorderPainted(false);
+        startButton.setContentAreaFilled(false);
+        startButton.setPreferredSize(new Dimension(250, 40));
+        startButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        
+        headerPanel.add(title, BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(startButton);
+        headerPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
+        frame.add(headerPanel, BorderLayout.NORTH);
+    }
+    
+    private void setupMainPanel() {
+        // Fond dégradé subtil, redessiné sous chaque ProcessPanel animé
+        BackgroundCache background = new BackgroundCache((g2d, width, height) -> {
+            g2d.setPaint(new GradientPaint(
+                0, 0, new Color(240, 248, 255),
+                width, height, new Color(230, 230, 250)
+            ));
+            g2d.fillRect(0, 0, width, height);
+        });
+        JPanel mainPanel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                background.paint(g, this);
+            }
+        };
+        mainPanel.setLayout(new GridLayout(5, 2, 15, 15));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        
+        JScrollPane scrollPane = new JScrollPane(mainPanel);
+        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
+        scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        scrollPane.getViewport().setOpaque(false);
+        scrollPane.setOpaque(false);
+        
+        frame.add(scrollPane, BorderLayout.CENTER);
+    }
+
+    public void addProcess(Process p) {
+        processes.put(p.id, p);
+
+        JPanel containerPanel = new JPanel(new BorderLayout(10, 10));
+        containerPanel.setOpaque(false);
+        
+        // Panel principal du processus avec design moderne
+        ProcessPanel processPanel = new ProcessPanel(p.id);
+        processPanels.put(p.id, processPanel);
+        
+        // Zone de logs avec style moderne
+        JTextArea logArea = new JTextArea(8, 35);
+        logArea.setFont(new Font("Consolas", Font.PLAIN, 11));
+        logArea.setEditable(false);
+        logArea.setBackground(new Color(248, 248, 255));
+        logArea.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        
+        JScrollPane logScroll = new JScrollPane(logArea) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                
+                // Fond avec bordure arrondie
+                g2d.setColor(new Color(245, 245, 245));
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
+                
+                // Bordure
+                g2d.setColor(new Color(200, 200, 200));
+                g2d.setStroke(new BasicStroke(1));
+                g2d.drawRoundRect(0, 0, getWidth()-1, getHeight()-1, 10, 10);
+            }
+        };
+        logScroll.setOpaque(false);
+        logScroll.getViewport().setOpaque(false);
+        logScroll.setBorder(null);
+        logScroll.setPreferredSize(new Dimension(0, 120));
+        
+        logs.put(p.id, new LogView(logArea));
+        
+        // Bouton de contrôle avec style moderne
+        JButton controlBtn = new JButton(" CONTRÔLE") {
+            private boolean isDown = false;
+            
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                
+                Color baseColor = isDown ? new Color(220, 20, 60) : new Color(70, 130, 180);
+                Color lighter = baseColor.brighter();
+                Color darker = baseColor.darker();
+                
+                if (getModel().isPressed()) {
+                    GradientPaint gradient = new GradientPaint(0, 0, darker, 0, getHeight(), lighter);
+                    g2d.setPaint(gradient);
+                } else if (getModel().isRollover()) {
+                    GradientPaint gradient = new GradientPaint(0, 0, lighter, 0, getHeight(), baseColor);
+                    g2d.setPaint(gradient);
+                } else {
+                    GradientPaint gradient = new GradientPaint(0, 0, baseColor, 0, getHeight(), darker);
+                    g2d.setPaint(gradient);
+                }
+                
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 8, 8);
+                
+                // Ombre
+                g2d.setColor(new Color(0, 0, 0, 50));
+                g2d.fillRoundRect(2, 2, getWidth(), getHeight(), 8, 8);
+                
+                // Texte
+                g2d.setColor(Color.WHITE);
+                g2d.setFont(getFont());
+                FontMetrics fm = g2d.getFontMetrics();
+                String text = isDown ? " REDÉMARRER" : " PANNE";
+                int textX = (getWidth() - fm.stringWidth(text)) / 2;
+                int textY = (getHeight() + fm.getAscent()) / 2 - 2;
+                g2d.drawString(text, textX, textY);
+            }
+            
+            private void updateState() {
+                isDown = !p.isAlive;
+                repaint();
+            }
+        };
+        
+        controlBtn.setFont(new Font("Arial", Font.BOLD, 11));
+        controlBtn.setFocusPainted(false);
+        controlBtn.setBorderPainted(false);
+        controlBtn.setContentAreaFilled(false);
+        controlBtn.setPreferredSize(new Dimension(120, 35));
+        controlBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        
+        controlBtn.addActionListener(e -> {
+            boolean current = p.isAlive;
+            p.setAlive(!current);
+            updateState(p.id, current ? "Panne" : "Repos", false);
+            controlBtn.repaint();
+        });
+        
+        panneButtons.put(p.id, controlBtn);
+        
+        // Panel pour le bouton
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(controlBtn);
+        
+        // Assemblage du container
+        containerPanel.add(processPanel, BorderLayout.CENTER);
+        containerPanel.add(logScroll, BorderLayout.SOUTH);
+        containerPanel.add(buttonPanel, BorderLayout.EAST);
+        
+        // Configuration du bouton de démarrage
+        if (!started) {
+            startButton.addActionListener(e -> {
+                if (!started) {
+                    processes.values().forEach(pr -> {
+                        try { 
+                            pr.start(); 
+                        } catch (IOException ex) { 
+                            ex.printStackTrace(); 
+                        }
+                    });
+                    startButton.setText(" SIMULATION EN COURS");
+                    startButton.setEnabled(false);
+                    started = true;
+                }
+            });
+        }
+
+        // Ajout au panel principal
+        JScrollPane scrollPane = (JScrollPane) frame.getContentPane().getComponent(1);
+        JPanel mainPanel = (JPanel) scrollPane.getViewport().getView();
+        mainPanel.add(containerPanel);
+    }
+
+    public void show() {
+        frame.setVisible(true);
+    }
+
+    public void updateState(int id, String state, boolean hasToken) {
+        SwingUtilities.invokeLater(() -> {
+            ProcessPanel panel = processPanels.get(id);
+            if (panel != null) {
+                Process process = processes.get(id);
+                panel.updateState(state, hasToken, process.isAlive);
+            }
+        });
+    }
+
+    // Appelé par le thread d'EventLog ; le rythme d'affichage se règle avec -Dra.log.pacing.ms
+    public void appendLog(int id, EventLog.Kind kind, Message.Type type, String log) {
+        LogView view = logs.get(id);
+        if (view != null) view.add(prefix(kind, type) + log);
+    }
+
+    // Repère visuel selon le type d'événement
+    private static String prefix(EventLog.Kind kind, Message.Type type) {
+        switch (kind) {
+            case ENTER: return "[!!!! JETON] ";
+            case ENTER_SHARED: return "[ LECTURE] ";
+            case RECEIVED:
+                switch (type) {
+                    case REQUEST:
+                    case REQUEST_REPLY: return "[ REQ] ";
+                    case REPLY: return "[ REP] ";
+                    default: return "";
+                }
+            case CRASH:
+            case SEND_FAILED:
+            case SUSPECT: return "[ PANNE] ";
+            case RESTART:
+            case RECOVERED: return "[ RESTART] ";
+            default: return "";
+        }
+    }
+
+    public void announceToken(int id) {
+        SwingUtilities.invokeLater(() -> {
+            // Animation spéciale pour l'annonce du jeton
+            ProcessPanel panel = processPanels.get(id);
+            if (panel != null) {
+                // Clignotement porté par l'horloge d'animation partagée
+                panel.flash();
+            }
+            
+            LogView view = logs.get(id);
+            if (view != null) view.add(" >>> PROCESSUS " + id + " DÉTIENT LE JETON EXCLUSIF <<<");
+        });
+    }
+}
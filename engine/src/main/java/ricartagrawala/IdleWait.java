@@ -0,0 +1,28 @@
+package ricartagrawala;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// Sommeil d'un thread consommateur unique, que ses producteurs ne réveillent que s'il s'est
+// déclaré inactif : un unpark par période d'inactivité plutôt qu'un par publication. Il se
+// déclare avant de revérifier sa condition, si bien qu'une publication faite entre les deux le
+// trouve inactif et le réveille ; le délai borne l'attente quand un producteur ne réveille pas.
+final class IdleWait {
+    private static final long TIMEOUT_NANOS = 10_000_000L;
+    private volatile boolean idle;
+
+    // Côté consommateur : dort au plus TIMEOUT_NANOS si nothingToDo est encore vrai
+    void park(BooleanSupplier nothingToDo) {
+        idle = true;
+        if (nothingToDo.getAsBoolean()) LockSupport.parkNanos(TIMEOUT_NANOS);
+        idle = false;
+    }
+
+    // Côté producteur, après publication
+    void wake(Thread consumer) {
+        if (idle) {
+            idle = false;
+            LockSupport.unpark(consumer);
+        }
+    }
+}
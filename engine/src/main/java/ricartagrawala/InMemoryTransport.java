@@ -0,0 +1,30 @@
+package ricartagrawala;
+
+import java.util.*;
+
+// Transport en mémoire : tous les processus vivent dans la même JVM et un envoi
+// n'est qu'un dépôt dans la boîte aux lettres du destinataire
+class InMemoryTransport implements Transport {
+    private final Map<Integer, Process> network;
+    private Process owner;
+
+    // network est partagé par tous les processus de la simulation ; y inscrire toute la grappe
+    // avant le premier start() évite de perdre les messages envoyés au démarrage
+    public InMemoryTransport(Map<Integer, Process> network) {
+        this.network = network;
+    }
+
+    public void start(Process owner) {
+        this.owner = owner;
+        network.put(owner.id, owner);
+    }
+
+    public void send(Message msg, int destId) {
+        Process dest = network.get(destId);
+        if (dest != null) dest.deliver(msg);
+        // Destinataire pas encore inscrit : le message est perdu, signalé comme par TcpTransport
+        else if (owner != null && !owner.suspects(destId)) owner.log(EventLog.Kind.SEND_FAILED, 0, destId, null, 0);
+    }
+
+    public void onCrash() {}
+}
@@ -0,0 +1,63 @@
+package ricartagrawala;
+
+import java.util.concurrent.atomic.*;
+
+// Histogramme de latences à seaux fixes, log-linéaire : 8 seaux par puissance de 2, soit
+// moins de 12,5 % d'erreur sur un percentile, de la nanoseconde à plusieurs siècles.
+// Enregistrer coûte un incrément atomique : ni verrou, ni allocation.
+class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(index(nanos));
+        sum.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    static int index(long value) {
+        if (value < SUB) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB + (int) ((value >>> shift) & (SUB - 1));
+    }
+
+    // Plus grande valeur rangée dans le seau
+    static long upperBound(int index) {
+        if (index < SUB) return index;
+        int shift = index / SUB - 1;
+        return ((long) (SUB + index % SUB) << shift) + (1L << shift) - 1;
+    }
+
+    // Ajoute les comptes de cet histogramme à ceux d'un instantané (vue de la grappe)
+    void addTo(long[] snapshot) {
+        for (int i = 0; i < BUCKETS; i++) snapshot[i] += counts.get(i);
+    }
+
+    long sum() {
+        return sum.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    // Borne haute du seau contenant le quantile q d'un instantané ; 0 s'il est vide
+    static long percentile(long[] snapshot, double q) {
+        long total = 0;
+        for (long c : snapshot) total += c;
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(BUCKETS - 1);
+    }
+}
@@ -0,0 +1,326 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.List;
+import java.awt.*;
+
+// Maekawa (1985) pour une ressource : chaque nœud demande la permission à son quorum
+// (sa ligne et sa colonne dans une grille sqrt(N) x sqrt(N)) et sert lui-même d'arbitre
+// pour les quorums qui le contiennent. Deux quorums ont toujours un nœud commun.
+// INQUIRE / YIELD / FAILED évitent l'interblocage : un arbitre qui a accordé sa permission
+// à une demande moins prioritaire la réclame, et le demandeur la rend s'il sait qu'il ne
+// peut pas entrer tout de suite. Suppose des canaux FIFO, comme TCP.
+// Un arbitre n'accorde qu'une permission à la fois : les lectures y sont exclusives.
+// Un nœud dont le quorum contient un pair soupçonné ne peut pas entrer avant son retour ; les
+// autres continuent. Les méthodes privées s'exécutent toutes sous le moniteur du verrou.
+class MaekawaLock extends DistributedLock {
+    final Set<Integer> quorum;
+    // Côté demandeur. withdrawn : demande retirée tant qu'un membre du quorum est soupçonné.
+    private boolean withdrawn;
+    private final Set<Integer> granted = new HashSet<>();
+    private final Set<Integer> failedFrom = new HashSet<>();
+    private final Set<Integer> yieldedTo = new HashSet<>();
+    private final Set<Integer> inquiries = new HashSet<>();
+    // Côté arbitre : demande à qui notre permission est accordée, et file des autres
+    private Request lockedFor;
+    private final PriorityQueue<Request> waiting = new PriorityQueue<>();
+    private boolean inquireSent;
+    // Messages à soi-même, traités dans le moniteur sans passer par le réseau
+    private final ArrayDeque<Message> local = new ArrayDeque<>();
+
+    static class Request implements Comparable<Request> {
+        final long timestamp;
+        final int nodeId;
+        final long incarnation;  // du demandeur : une autre au renvoi, il a perdu nos réponses
+
+        Request(long timestamp, int nodeId, long incarnation) {
+            this.timestamp = timestamp;
+            this.nodeId = nodeId;
+            this.incarnation = incarnation;
+        }
+
+        public int compareTo(Request o) {
+            return timestamp != o.timestamp ? Long.compare(timestamp, o.timestamp) : Integer.compare(nodeId, o.nodeId);
+        }
+    }
+
+    public MaekawaLock(Process owner, int lockId) {
+        super(owner, lockId);
+        quorum = gridQuorum(owner.id, owner.peers.keySet());
+    }
+
+    // Ligne et colonne du nœud dans la grille des identifiants triés. Les cases vides de
+    // la dernière ligne sont ignorées : deux quorums se croisent toujours en (ligne de i,
+    // colonne de j) ou en (ligne de j, colonne de i), et l'une des deux cases existe.
+    static Set<Integer> gridQuorum(int id, Collection<Integer> ids) {
+        List<Integer> sorted = new ArrayList<>(new TreeSet<>(ids));
+        int side = (int) Math.ceil(Math.sqrt(sorted.size()));
+        int index = sorted.indexOf(id);
+        Set<Integer> quorum = new TreeSet<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            if (i / side == index / side || i % side == index % side) quorum.add(sorted.get(i));
+        }
+        return quorum;
+    }
+
+    void requestCS(boolean shared) {
+        boolean complete;
+        synchronized (this) {
+            requestTimestamp = owner.advanceClock();
+            requestingCS = true;
+            this.shared = shared;
+            granted.clear();
+            failedFrom.clear();
+            yieldedTo.clear();
+            inquiries.clear();
+            permission = new CompletableFuture<>();
+            withdrawn = !quorumUp();
+            if (!withdrawn) {
+                for (int member : quorum) send(Message.Type.REQUEST, requestTimestamp, member);
+            }
+            owner.publishState("Demande", false);
+            complete = drainLocal();
+        }
+        if (complete) permission.complete(null);
+    }
+
+    void exitCS() {
+        Map<Integer, List<Message>> releases = new LinkedHashMap<>();
+        synchronized (this) {
+            inCS = false;
+            requestingCS = false;
+            granted.clear();
+            log(EventLog.Kind.EXIT);
+            owner.publishState("Repos", false);
+            List<Message> release = List.of(message(Message.Type.RELEASE, owner.clock.get()));
+            for (int member : quorum) {
+                if (member == owner.id) local.add(release.get(0));
+                else releases.put(member, release);
+            }
+            drainLocal();
+        }
+        if (!releases.isEmpty()) owner.sendBatch(releases);
+    }
+
+    void handle(Message msg) {
+        boolean complete;
+        synchronized (this) {
+            logReceived(msg);
+            complete = dispatch(msg) | drainLocal();
+        }
+        if (complete) permission.complete(null);
+    }
+
+    // Côté arbitre : sa demande est oubliée et la permission qu'il tenait passe à la suivante.
+    // Côté demandeur : un membre soupçonné de notre quorum reste nécessaire, sans quoi deux
+    // quorums pourraient ne plus se croiser. Ne pouvant aboutir, notre demande est retirée auprès
+    // des autres membres, qui servent en attendant les nœuds dont le quorum l'évite.
+    void onSuspect(int peerId) {
+        boolean complete;
+        synchronized (this) {
+            onRelease(peerId);
+            if (quorum.contains(peerId) && requestingCS && !inCS && !withdrawn) {
+                withdrawn = true;
+                granted.clear();
+                failedFrom.clear();
+                yieldedTo.clear();
+                inquiries.clear();
+                for (int member : quorum) {
+                    if (member != peerId) send(Message.Type.RELEASE, owner.clock.get(), member);
+                }
+            }
+            complete = drainLocal();
+        }
+        if (complete) permission.complete(null);
+    }
+
+    // Un arbitre revenu de panne a perdu ce qu'on lui a envoyé entre-temps : notre demande, s'il
+    // ne nous a pas encore accordé sa permission, ou la restitution de la précédente. Une demande
+    // retirée repart auprès de tout le quorum dès qu'il est au complet.
+    void onRecover(int peerId) {
+        boolean complete = false;
+        synchronized (this) {
+            if (!quorum.contains(peerId)) return;
+            if (!requestingCS) send(Message.Type.RELEASE, owner.clock.get(), peerId);
+            else if (withdrawn) complete = resend();
+            else if (!inCS && !granted.contains(peerId)) send(Message.Type.REQUEST, requestTimestamp, peerId);
+        }
+        if (complete) permission.complete(null);
+    }
+
+    // Les permissions accordées ou retirées pendant la panne sont perdues : on repart de zéro
+    // auprès de tout le quorum, les arbitres ignorant les demandes qu'ils ont déjà
+    void onRestart() {
+        boolean complete;
+        synchronized (this) {
+            if (!requestingCS || inCS) return;
+            complete = resend();
+        }
+        if (complete) permission.complete(null);
+    }
+
+    // Vrai si l'arbitre local suffisait à compléter le quorum
+    private boolean resend() {
+        granted.clear();
+        failedFrom.clear();
+        yieldedTo.clear();
+        inquiries.clear();
+        withdrawn = !quorumUp();
+        if (withdrawn) return false;
+        for (int member : quorum) send(Message.Type.REQUEST, requestTimestamp, member);
+        return drainLocal();
+    }
+
+    private boolean quorumUp() {
+        for (int member : quorum) {
+            if (owner.suspects(member)) return false;
+        }
+        return true;
+    }
+
+    // Vrai si l'un des messages à soi-même a apporté la dernière permission attendue
+    private boolean drainLocal() {
+        boolean complete = false;
+        Message msg;
+        while ((msg = local.poll()) != null) complete |= dispatch(msg);
+        return complete;
+    }
+
+    private boolean dispatch(Message msg) {
+        switch (msg.type) {
+            case REQUEST: onRequest(new Request(msg.timestamp, msg.senderId, msg.incarnation)); break;
+            case RELEASE: onRelease(msg.senderId); break;
+            case YIELD: onYield(msg.senderId); break;
+            case REPLY: return onGrant(msg.senderId);
+            case REQUEST_REPLY: {
+                // Regroupement de l'Outbox TCP : permission de l'émetteur et sa demande à notre arbitre
+                boolean complete = onGrant(msg.senderId);
+                onRequest(new Request(msg.timestamp, msg.senderId, msg.incarnation));
+                return complete;
+            }
+            case INQUIRE: onInquire(msg.senderId); break;
+            case FAILED: onFailed(msg.senderId); break;
+            default: break;
+        }
+        return false;
+    }
+
+    // --- Arbitre ---
+
+    private void onRequest(Request r) {
+        if (lockedFor == null) {
+            grant(r);
+            return;
+        }
+        // Demande renvoyée : redemandée par un nœud redémarré, qui a perdu notre réponse, elle
+        // l'obtient de nouveau ; simplement relancée, elle l'a déjà
+        if (lockedFor.compareTo(r) == 0) {
+            if (lockedFor.incarnation == r.incarnation) return;
+            lockedFor = r;
+            send(Message.Type.REPLY, owner.clock.get(), r.nodeId);
+            if (inquireSent) send(Message.Type.INQUIRE, owner.clock.get(), r.nodeId);
+            return;
+        }
+        Request same = null;
+        for (Request w : waiting) {
+            if (w.compareTo(r) == 0) same = w;
+        }
+        if (same != null) {
+            if (same.incarnation == r.incarnation) return;
+            boolean head = waiting.peek() == same;
+            waiting.remove(same);
+            waiting.add(r);
+            if (!head || r.compareTo(lockedFor) > 0) send(Message.Type.FAILED, owner.clock.get(), r.nodeId);
+            return;
+        }
+        // Un nœud n'a qu'une demande à la fois par verrou : s'il en fait une nouvelle, le RELEASE
+        // de la précédente a été perdu pendant notre panne
+        if (lockedFor.nodeId == r.nodeId) {
+            onRelease(r.nodeId);
+            onRequest(r);
+            return;
+        }
+        Request previousHead = waiting.peek();
+        waiting.add(r);
+        owner.trace(EventLog.Kind.DEFERRED, lockId, r.nodeId, Message.Type.REQUEST, r.timestamp);
+        if (r.compareTo(lockedFor) < 0 && waiting.peek() == r) {
+            // La demande qu'elle dépasse n'a jamais reçu FAILED : sans cela elle garderait
+            // ses autres permissions et pourrait bloquer r
+            if (previousHead != null) send(Message.Type.FAILED, owner.clock.get(), previousHead.nodeId);
+            if (!inquireSent) {
+                inquireSent = true;
+                send(Message.Type.INQUIRE, owner.clock.get(), lockedFor.nodeId);
+            }
+        } else {
+            send(Message.Type.FAILED, owner.clock.get(), r.nodeId);
+        }
+    }
+
+    // Fin de section critique, ou demande retirée par un demandeur qui ne peut aboutir
+    private void onRelease(int from) {
+        waiting.removeIf(r -> r.nodeId == from);
+        if (lockedFor != null && lockedFor.nodeId == from) {
+            lockedFor = null;
+            Request next = waiting.poll();
+            if (next != null) grant(next);
+        }
+    }
+
+    private void onYield(int from) {
+        if (lockedFor == null || lockedFor.nodeId != from) return;
+        waiting.add(lockedFor);
+        lockedFor = null;
+        grant(waiting.poll());
+    }
+
+    private void grant(Request r) {
+        lockedFor = r;
+        inquireSent = false;
+        send(Message.Type.REPLY, owner.clock.get(), r.nodeId);
+    }
+
+    // --- Demandeur ---
+
+    private boolean onGrant(int from) {
+        // Permission partie avant notre retrait : notre RELEASE la libère déjà
+        if (!requestingCS || inCS || withdrawn) return false;
+        granted.add(from);
+        failedFrom.remove(from);
+        yieldedTo.remove(from);
+        if (granted.size() < quorum.size()) return false;
+        inquiries.clear();
+        return true;
+    }
+
+    private void onInquire(int from) {
+        // Déjà entré ou sur le point de l'être : la permission reviendra avec RELEASE
+        if (!requestingCS || inCS || !granted.contains(from) || granted.size() == quorum.size()) return;
+        if (!failedFrom.isEmpty() || !yieldedTo.isEmpty()) yieldTo(from);
+        else inquiries.add(from);
+    }
+
+    private void onFailed(int from) {
+        if (!requestingCS || inCS) return;
+        failedFrom.add(from);
+        for (int arbiter : inquiries) yieldTo(arbiter);
+        inquiries.clear();
+    }
+
+    private void yieldTo(int arbiter) {
+        if (!granted.remove(arbiter)) return;
+        yieldedTo.add(arbiter);
+        send(Message.Type.YIELD, owner.clock.get(), arbiter);
+    }
+
+    private void send(Message.Type type, long timestamp, int dest) {
+        Message msg = message(type, timestamp);
+        if (dest == owner.id) {
+            // Comme Process.sendMessage : l'arbitre local reconnaît aussi nos redémarrages
+            msg.incarnation = owner.incarnation;
+            local.add(msg);
+        } else {
+            owner.sendMessage(msg, dest);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Boîte aux lettres sans verrou d'un processus : n'importe quel thread y dépose,
+// un seul thread du pool DISPATCH à la fois la vide dans handleMessage
+class Mailbox implements Runnable {
+    // Pool partagé par tous les processus de la JVM
+    static final ExecutorService DISPATCH = Executors.newCachedThreadPool();
+    // Nombre de boîtes par processus (-Dra.lock.stripes), les verrous y sont répartis
+    static final int STRIPES = Integer.getInteger("ra.lock.stripes", 4);
+
+    private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Process owner;
+
+    public Mailbox(Process owner) {
+        this.owner = owner;
+    }
+
+    public void offer(Message msg) {
+        queue.offer(msg);
+        if (scheduled.compareAndSet(false, true)) DISPATCH.execute(this);
+    }
+
+    @Override
+    public void run() {
+        try {
+            Message msg;
+            while ((msg = queue.poll()) != null) {
+                try {
+                    if (owner.isAlive) owner.handleMessage(msg);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) DISPATCH.execute(this);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+
+// Fichier d'enregistrements de taille fixe derrière un en-tête, projeté en mémoire par régions
+// au fil de sa croissance. Partagé par TraceRecorder et WriteAheadLog.
+class MappedFile {
+    final FileChannel channel;
+    private final int header;
+    private final int record;
+    private final int perRegion;
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+
+    MappedFile(FileChannel channel, int header, int record, long regionBytes) {
+        this.channel = channel;
+        this.header = header;
+        this.record = record;
+        this.perRegion = (int) Math.max(1, regionBytes / record);
+    }
+
+    // Région contenant l'enregistrement index, projetée si besoin
+    MappedByteBuffer region(long index) throws IOException {
+        int r = (int) (index / perRegion);
+        MappedByteBuffer[] mapped = regions;
+        if (r < mapped.length) return mapped[r];
+        synchronized (this) {
+            mapped = regions;
+            if (r >= mapped.length) {
+                MappedByteBuffer[] grown = Arrays.copyOf(mapped, r + 1);
+                for (int i = mapped.length; i <= r; i++) {
+                    grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, header + (long) i * perRegion * record,
+                            (long) perRegion * record);
+                }
+                regions = mapped = grown;
+            }
+            return mapped[r];
+        }
+    }
+
+    // Position de l'enregistrement index dans sa région
+    int offset(long index) {
+        return (int) (index % perRegion) * record;
+    }
+
+    // Écrit sur disque les pages des enregistrements [from, to)
+    void force(long from, long to) throws IOException {
+        while (from < to) {
+            long regionEnd = (from / perRegion + 1) * perRegion;
+            long end = Math.min(to, regionEnd);
+            region(from).force(offset(from), (int) (end - from) * record);
+            from = end;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package ricartagrawala;
+
+import java.util.*;
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+
+// Interface d'accueil moderne
+class MenuInterface extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    private JPanel mainPanel;
+    private JButton startButton;
+    private JButton exitButton;
+    private JLabel loadingLabel;
+    private Timer animationTimer;
+    private int animationStep = 0;
+    
+    public MenuInterface() {
+        setTitle("Simulation Algorithme Ricart & Agrawala");
+        initializeInterface();
+        setupComponents();
+        setupLayout();
+        setupEventListeners();
+    }
+    
+    private void initializeInterface() {
+        setSize(800, 600);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setResizable(false);
+    }
+    
+    private void setupComponents() {
+        BackgroundCache background = new BackgroundCache((g2d, width, height) -> {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            
+            // Gradient de fond
+            GradientPaint gradient = new GradientPaint(
+                0, 0, new Color(25, 25, 112),
+                width, height, new Color(138, 43, 226)
+            );
+            g2d.setPaint(gradient);
+            g2d.fillRect(0, 0, width, height);
+            
+            // Effets d'étoiles
+            g2d.setColor(Color.WHITE);
+            Random rand = new Random(42);
+            for (int i = 0; i < 50; i++) {
+                int x = rand.nextInt(width);
+                int y = rand.nextInt(height);
+                int size = rand.nextInt(3) + 1;
+                g2d.fillOval(x, y, size, size);
+            }
+        });
+        mainPanel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                background.paint(g, this);
+            }
+        };
+        mainPanel.setLayout(null);
+        
+        // Titre principal
+        JLabel titleLabel = new JLabel("SIMULATEUR D'ALGORITHMES");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 32));
+        titleLabel.setForeground(Color.WHITE);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        titleLabel.setBounds(50, 50, 700, 50);
+        
+        // Sous-titre
+        JLabel subtitleLabel = new JLabel("Algorithme de Ricart & Agrawala (1983)");
+        subtitleLabel.setFont(new Font("Arial", Font.ITALIC, 18));
+        subtitleLabel.setForeground(new Color(255, 215, 0));
+        subtitleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        subtitleLabel.setBounds(50, 100, 700, 30);
+        
+        // Carte de présentation
+        JPanel cardPanel = createInfoCard();
+        cardPanel.setBounds(150, 150, 500, 200);
+        
+        // Bouton démarrer
+        startButton = createStyledButton("DEMARRER LA SIMULATION", new Color(50, 205, 50));
+        startButton.setBounds(250, 380, 300, 50);
+        
+        // Bouton quitter
+        exitButton = createStyledButton("X QUITTER", new Color(220, 20, 60));
+        exitButton.setBounds(250, 450, 300, 50);
+        
+        // Label de chargement (initialement caché)
+        loadingLabel = new JLabel("Demarrage de la simulation...", SwingConstants.CENTER);
+        loadingLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        loadingLabel.setForeground(Color.YELLOW);
+        loadingLabel.setBounds(200, 520, 400, 30);
+        loadingLabel.setVisible(false);
+        
+        // Ajout des composants
+        mainPanel.add(titleLabel);
+        mainPanel.add(subtitleLabel);
+        mainPanel.add(cardPanel);
+        mainPanel.add(startButton);
+        mainPanel.add(exitButton);
+        mainPanel.add(loadingLabel);
+        
+        add(mainPanel);
+    }
+    
+    private JPanel createInfoCard() {
+        JPanel card = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                
+                // Fond de carte avec transparence
+                g2d.setColor(new Color(255, 255, 255, 200));
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 20, 20);
+                
+                // Bordure
+                g2d.setColor(new Color(100, 100, 100, 150));
+                g2d.setStroke(new BasicStroke(2));
+                g2d.drawRoundRect(0, 0, getWidth()-1, getHeight()-1, 20, 20);
+            }
+        };
+        card.setLayout(new BorderLayout());
+        card.setOpaque(false);
+        
+        JLabel cardTitle = new JLabel("A PROPOS DE L'ALGORITHME", SwingConstants.CENTER);
+        cardTitle.setFont(new Font("Arial", Font.BOLD, 16));
+        cardTitle.setForeground(new Color(139, 0, 139));
+        cardTitle.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+        
+        JTextArea description = new JTextArea(
+            "- Algorithme d'exclusion mutuelle distribue (1983)\n" +
+            "- Base sur les horloges logiques de Lamport\n" +
+            "- Utilise un systeme de jeton implicite\n" +
+            "- Simulation avec 10 processus concurrents\n" +
+            "- Gestion des pannes et redemarrages\n" +
+            "- Interface temps reel avec logs detailles"
+        );
+        description.setFont(new Font("Arial", Font.PLAIN, 16));
+        description.setForeground(Color.BLACK);
+        description.setOpaque(false);
+        description.setEditable(false);
+        description.setBorder(BorderFactory.createEmptyBorder(0, 20, 10, 20));
+        
+        card.add(cardTitle, BorderLayout.NORTH);
+        card.add(description, BorderLayout.CENTER);
+        
+        return card;
+    }
+    
+    private JButton createStyledButton(String text, Color baseColor) {
+        JButton button = new JButton(text) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                
+                // Gradient du bouton
+                Color lighter = baseColor.brighter();
+                Color darker = baseColor.darker();
+                
+                if (getModel().isPressed()) {
+                    GradientPaint gradient = new GradientPaint(0, 0, darker, 0, getHeight(), lighter);
+                    g2d.setPaint(gradient);
+                } else if (getModel().isRollover()) {
+                    GradientPaint gradient = new GradientPaint(0, 0, lighter, 0, getHeight(), baseColor);
+                    g2d.setPaint(gradient);
+                } else {
+                    GradientPaint gradient = new GradientPaint(0, 0, baseColor, 0, getHeight(), darker);
+                    g2d.setPaint(gradient);
+                }
+                
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 15, 15);
+                
+                // Bordure
+                g2d.setColor(darker);
+                g2d.setStroke(new BasicStroke(2));
+                g2d.drawRoundRect(0, 0, getWidth()-1, getHeight()-1, 15, 15);
+                
+                // Texte
+                g2d.setColor(Color.WHITE);
+                g2d.setFont(getFont());
+                FontMetrics fm = g2d.getFontMetrics();
+                int textX = (getWidth() - fm.stringWidth(getText())) / 2;
+                int textY = (getHeight() + fm.getAscent()) / 2 - 2;
+                g2d.drawString(getText(), textX, textY);
+            }
+        };
+        
+        button.setFont(new Font("Arial", Font.BOLD, 14));
+        button.setFocusPainted(false);
+        button.setBorderPainted(false);
+        button.setContentAreaFilled(false);
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        
+        return button;
+    }
+    
+    private void setupLayout() {
+        setLayout(new BorderLayout());
+        add(mainPanel, BorderLayout.CENTER);
+    }
+    
+    private void setupEventListeners() {
+        startButton.addActionListener(e -> startSimulation());
+        
+        exitButton.addActionListener(e -> {
+            int result = JOptionPane.showConfirmDialog(
+                this,
+                "Etes-vous sur de vouloir quitter l'application ?",
+                "Confirmation de sortie",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE
+            );
+            
+            if (result == JOptionPane.YES_OPTION) {
+                System.exit(0);
+            }
+        });
+    }
+    
+    private void startSimulation() {
+        startButton.setEnabled(false);
+        exitButton.setEnabled(false);
+        loadingLabel.setVisible(true);
+        
+        // Animation de chargement
+        animationTimer = new Timer(200, e -> {
+            String[] animations = {"[.]", "[..]", "[...]", "[....]"};
+            loadingLabel.setText(animations[animationStep % animations.length] + " Demarrage de la simulation...");
+            animationStep++;
+        });
+        animationTimer.start();
+        
+        // Démarrage différé pour l'effet visuel
+        Timer startTimer = new Timer(2000, e -> {
+            animationTimer.stop();
+            setVisible(false);
+            launchMainSimulation();
+        });
+        startTimer.setRepeats(false);
+        startTimer.start();
+    }
+    
+    private void launchMainSimulation() {
+        SwingUtilities.invokeLater(() -> {
+            Map<Integer, String> peers = new HashMap<>();
+            for (int i = 1; i <= 10; i++) {
+                peers.put(i, "localhost:" + (5000 + i));
+            }
+            GUI gui = new GUI();
+            for (int i = 1; i <= 10; i++) {
+                Process p = new Process(i, peers, gui);
+                gui.addProcess(p);
+            }
+            gui.show();
+            dispose(); // Ferme l'interface d'accueil
+        });
+    }
+}
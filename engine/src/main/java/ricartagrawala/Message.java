@@ -0,0 +1,37 @@
+package ricartagrawala;
+
+class Message {
+    // REQUEST_REPLY : un REQUEST qui porte aussi un REPLY pour le même destinataire.
+    // RELEASE, INQUIRE, YIELD, FAILED ne servent qu'au mode Maekawa (où REPLY vaut LOCKED).
+    // HEARTBEAT : signe de vie du FailureDetector, jamais transmis aux verrous.
+    public enum Type { REQUEST, REPLY, REQUEST_REPLY, RELEASE, INQUIRE, YIELD, FAILED, HEARTBEAT }
+    // READ : demande en lecture (partagée). SHARED_GRANT : permission donnée à une lecture,
+    // que le destinataire ne conserve pas (Roucairol-Carvalho). Sur un HEARTBEAT, ANNOUNCE : annonce
+    // d'une incarnation, à acquitter ; ACK : l'acquittement, dont timestamp est l'incarnation reçue.
+    public static final int READ = 1, SHARED_GRANT = 2, ANNOUNCE = 4, ACK = 8;
+    public Type type;
+    public int senderId;
+    public long timestamp;
+    public int lockId;  // ressource visée (0 = la section critique unique)
+    public long incarnation;  // celle de l'émetteur, posée à l'envoi par Process
+    public int flags;
+
+    public Message(Type type, int senderId, long timestamp) {
+        this.type = type;
+        this.senderId = senderId;
+        this.timestamp = timestamp;
+    }
+
+    public boolean isRead() {
+        return (flags & READ) != 0;
+    }
+
+    // Ce REQUEST portant en plus le REPLY donné
+    public Message piggybacked(Message reply) {
+        Message combined = new Message(Type.REQUEST_REPLY, senderId, timestamp);
+        combined.lockId = lockId;
+        combined.incarnation = incarnation;
+        combined.flags = (flags & READ) | (reply.flags & SHARED_GRANT);
+        return combined;
+    }
+}
@@ -0,0 +1,36 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+// Format binaire fixe d'un Message sur le réseau (32 octets, big-endian) :
+// type(1) drapeaux(1) réservé(2) expéditeur(4) horodatage(8) verrou(4) réservé(4) incarnation(8)
+class MessageCodec {
+    static final int FRAME_SIZE = 32;
+    private static final Message.Type[] TYPES = Message.Type.values();
+
+    static void encode(Message msg, ByteBuffer out) {
+        out.put((byte) msg.type.ordinal())
+           .put((byte) msg.flags).putShort((short) 0)
+           .putInt(msg.senderId)
+           .putLong(msg.timestamp)
+           .putInt(msg.lockId)
+           .putInt(0)
+           .putLong(msg.incarnation);
+    }
+
+    static Message decode(ByteBuffer in) throws StreamCorruptedException {
+        int type = in.get();
+        if (type < 0 || type >= TYPES.length) {
+            throw new StreamCorruptedException("type de message inconnu : " + type);
+        }
+        int flags = in.get();
+        in.position(in.position() + 2);
+        Message msg = new Message(TYPES[type], in.getInt(), in.getLong());
+        msg.flags = flags;
+        msg.lockId = in.getInt();
+        in.getInt();
+        msg.incarnation = in.getLong();
+        return msg;
+    }
+}
@@ -0,0 +1,147 @@
+package ricartagrawala;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.management.*;
+import java.awt.*;
+
+// Vue JMX des mesures d'un nœud (ricartagrawala:type=Node,id=N) ou de tous les nœuds de la
+// JVM (ricartagrawala:type=Cluster). Les valeurs sont agrégées à la lecture. MBean dynamique
+// car les interfaces d'un MBean standard doivent être publiques.
+class MetricsMBean implements DynamicMBean {
+    static final Map<Integer, NodeMetrics> NODES = new ConcurrentSkipListMap<>();
+
+    private static final String[] LONGS = { "Entries", "RequestsSent", "RepliesSent", "MessagesSent", "MessagesReceived" };
+    private static final String[] DOUBLES = { "MessagesPerEntry",
+            "WaitMeanMicros", "WaitP50Micros", "WaitP99Micros", "WaitP999Micros", "WaitMaxMicros",
+            "HoldMeanMicros", "HoldP50Micros", "HoldP99Micros", "HoldP999Micros", "HoldMaxMicros" };
+
+    // Messages de l'algorithme : les battements de cœur ne comptent pas dans les messages par entrée
+    private static final Message.Type[] ALGORITHM = EnumSet.complementOf(EnumSet.of(Message.Type.HEARTBEAT))
+            .toArray(new Message.Type[0]);
+
+    private final Supplier<Collection<NodeMetrics>> nodes;
+
+    MetricsMBean(Supplier<Collection<NodeMetrics>> nodes) {
+        this.nodes = nodes;
+    }
+
+    static void register(Process p) {
+        NODES.put(p.id, p.metrics);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName node = new ObjectName("ricartagrawala:type=Node,id=" + p.id);
+            if (server.isRegistered(node)) server.unregisterMBean(node);
+            server.registerMBean(new MetricsMBean(() -> List.of(p.metrics)), node);
+            ObjectName cluster = new ObjectName("ricartagrawala:type=Cluster");
+            if (!server.isRegistered(cluster)) server.registerMBean(new MetricsMBean(NODES::values), cluster);
+        } catch (InstanceAlreadyExistsException e) {
+            // Vue de la grappe enregistrée en même temps par un autre nœud
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private long messages(boolean sent, Message.Type... types) {
+        long n = 0;
+        for (NodeMetrics m : nodes.get()) {
+            LongAdder[] byType = sent ? m.sent : m.received;
+            for (Message.Type type : types) n += byType[type.ordinal()].sum();
+        }
+        return n;
+    }
+
+    private long entries() {
+        long n = 0;
+        for (NodeMetrics m : nodes.get()) n += m.entries.sum();
+        return n;
+    }
+
+    private double latency(boolean waitTimes, String stat) {
+        long[] snapshot = new long[LatencyHistogram.BUCKETS];
+        long sum = 0, max = 0, count = 0;
+        for (NodeMetrics m : nodes.get()) {
+            LatencyHistogram h = waitTimes ? m.wait : m.hold;
+            h.addTo(snapshot);
+            sum += h.sum();
+            max = Math.max(max, h.max());
+        }
+        for (long c : snapshot) count += c;
+        long nanos;
+        switch (stat) {
+            case "Mean": return count == 0 ? 0 : sum / 1e3 / count;
+            case "P50": nanos = LatencyHistogram.percentile(snapshot, 0.50); break;
+            case "P99": nanos = LatencyHistogram.percentile(snapshot, 0.99); break;
+            case "P999": nanos = LatencyHistogram.percentile(snapshot, 0.999); break;
+            default: nanos = max;
+        }
+        return Math.min(nanos, max) / 1e3;
+    }
+
+    public Object getAttribute(String name) throws AttributeNotFoundException {
+        Message.Type[] all = ALGORITHM;
+        switch (name) {
+            case "Entries": return entries();
+            case "RequestsSent": return messages(true, Message.Type.REQUEST, Message.Type.REQUEST_REPLY);
+            case "RepliesSent": return messages(true, Message.Type.REPLY, Message.Type.REQUEST_REPLY);
+            case "MessagesSent": return messages(true, all);
+            case "MessagesReceived": return messages(false, all);
+            case "MessagesPerEntry": {
+                long entries = entries();
+                return entries == 0 ? 0.0 : (double) messages(true, all) / entries;
+            }
+            default:
+                if (name.startsWith("Wait") && name.endsWith("Micros")) return latency(true, name.substring(4, name.length() - 6));
+                if (name.startsWith("Hold") && name.endsWith("Micros")) return latency(false, name.substring(4, name.length() - 6));
+                throw new AttributeNotFoundException(name);
+        }
+    }
+
+    public AttributeList getAttributes(String[] names) {
+        AttributeList list = new AttributeList();
+        for (String name : names) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException e) {
+                // Ignoré, comme le veut le contrat de getAttributes
+            }
+        }
+        return list;
+    }
+
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " est en lecture seule");
+    }
+
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    public Object invoke(String action, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(action));
+    }
+
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String name : LONGS) attributes.add(new MBeanAttributeInfo(name, "long", name, true, false, false));
+        for (String name : DOUBLES) attributes.add(new MBeanAttributeInfo(name, "double", name, true, false, false));
+        return new MBeanInfo(getClass().getName(), "Mesures d'exclusion mutuelle",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+
+    // Résumé d'une ligne pour les modes sans interface
+    String summary() {
+        try {
+            return String.format("attente p50/p99/p999 %.1f/%.1f/%.1f ms, détention p50 %.1f ms, %.1f messages/entrée",
+                    (double) getAttribute("WaitP50Micros") / 1e3, (double) getAttribute("WaitP99Micros") / 1e3,
+                    (double) getAttribute("WaitP999Micros") / 1e3, (double) getAttribute("HoldP50Micros") / 1e3,
+                    (double) getAttribute("MessagesPerEntry"));
+        } catch (AttributeNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Boucle d'événements NIO : un petit groupe de threads, partagé par tous les
+// processus de la JVM, accepte et lit toutes les connexions entrantes.
+class NioEventLoop implements Runnable {
+    static final int THREADS = Integer.getInteger("ra.io.threads",
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final NioEventLoop[] GROUP = new NioEventLoop[THREADS];
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
+    private final Selector selector;
+    private final Queue<Runnable> registrations = new ConcurrentLinkedQueue<>();
+
+    private NioEventLoop(int index) throws IOException {
+        selector = Selector.open();
+        Thread thread = new Thread(this, "nio-loop-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    static synchronized NioEventLoop next() throws IOException {
+        int index = Math.floorMod(nextIndex.getAndIncrement(), THREADS);
+        if (GROUP[index] == null) GROUP[index] = new NioEventLoop(index);
+        return GROUP[index];
+    }
+
+    void registerServer(ServerSocketChannel server, TcpTransport owner) throws IOException {
+        server.configureBlocking(false);
+        submit(() -> {
+            try {
+                server.register(selector, SelectionKey.OP_ACCEPT, owner);
+            } catch (ClosedChannelException e) {}
+        });
+    }
+
+    void register(PeerLink link) {
+        link.loop = this;
+        submit(() -> {
+            try {
+                link.key = link.channel.register(selector, SelectionKey.OP_READ, link);
+            } catch (ClosedChannelException e) {
+                link.owner.dropLink(link);
+            }
+        });
+    }
+
+    // Passée par la file d'inscriptions : appliquée après register, et sans attendre select()
+    void interest(PeerLink link, int ops) {
+        submit(() -> {
+            SelectionKey key = link.key;
+            if (key != null && key.isValid()) key.interestOps(ops);
+        });
+    }
+
+    private void submit(Runnable registration) {
+        registrations.add(registration);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                selector.select();
+                Runnable registration;
+                while ((registration = registrations.poll()) != null) registration.run();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept(key);
+                        continue;
+                    }
+                    if (key.isReadable()) read(key);
+                    if (key.isValid() && key.isWritable()) write(key);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void accept(SelectionKey key) throws IOException {
+        TcpTransport owner = (TcpTransport) key.attachment();
+        SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+        if (channel == null) return;
+        if (!owner.process.isAlive) {
+            channel.close();
+            return;
+        }
+        next().register(new PeerLink(channel, owner, true));
+    }
+
+    private void read(SelectionKey key) {
+        PeerLink link = (PeerLink) key.attachment();
+        try {
+            link.onReadable();
+        } catch (Exception e) {
+            // Fermeture par le pair, panne locale ou trame invalide
+            if (!(e instanceof IOException)) e.printStackTrace();
+            link.owner.dropLink(link);
+        }
+    }
+
+    private void write(SelectionKey key) {
+        PeerLink link = (PeerLink) key.attachment();
+        try {
+            link.onWritable();
+        } catch (IOException e) {
+            // Les trames restées dans le tampon sont perdues, comme un envoi qui échoue
+            TcpTransport owner = link.owner;
+            if (!owner.process.suspects(link.peerId)) owner.process.log(EventLog.Kind.SEND_FAILED, 0, link.peerId, null, 0);
+            owner.dropLink(link);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ricartagrawala;
+
+import java.util.concurrent.atomic.*;
+
+// Mesures d'un Process : attente entre la demande et l'entrée en SC, durée de détention,
+// messages émis et reçus par type. Tout est enregistré hors de tout moniteur.
+class NodeMetrics {
+    final LatencyHistogram wait = new LatencyHistogram();
+    final LatencyHistogram hold = new LatencyHistogram();
+    final LongAdder entries = new LongAdder();
+    final LongAdder[] sent = adders();
+    final LongAdder[] received = adders();
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[Message.Type.values().length];
+        for (int i = 0; i < adders.length; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    void entered(long waitNanos) {
+        entries.increment();
+        wait.record(waitNanos);
+    }
+
+    void sent(Message.Type type) {
+        sent[type.ordinal()].increment();
+    }
+
+    void received(Message.Type type) {
+        received[type.ordinal()].increment();
+    }
+}
@@ -0,0 +1,67 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.List;
+import java.awt.*;
+
+// File d'envoi vers un pair : vidée par un seul thread SENDERS à la fois. Tout ce qui
+// s'est accumulé part en une écriture, après fusion des couples REPLY/REQUEST.
+// -Dra.coalesce.micros=N attend N µs avant de vider pour regrouper davantage.
+class Outbox implements Runnable {
+    static final long COALESCE_NANOS = Long.getLong("ra.coalesce.micros", 0) * 1000;
+
+    private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final TcpTransport transport;
+    private final int destId;
+
+    public Outbox(TcpTransport transport, int destId) {
+        this.transport = transport;
+        this.destId = destId;
+    }
+
+    public void offer(Message msg) {
+        queue.offer(msg);
+        schedule();
+    }
+
+    public void offerAll(List<Message> msgs) {
+        queue.addAll(msgs);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) TcpTransport.SENDERS.execute(this);
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (COALESCE_NANOS > 0) LockSupport.parkNanos(COALESCE_NANOS);
+            List<Message> batch = new ArrayList<>();
+            Message msg;
+            while ((msg = queue.poll()) != null) batch.add(msg);
+            piggyback(batch);
+            transport.write(destId, batch);
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) schedule();
+        }
+    }
+
+    // Fusionne un REPLY suivi d'un REQUEST pour le même verrou en une trame REQUEST_REPLY.
+    // Le destinataire traite le REPLY d'abord, donc dans l'ordre d'envoi. Un REQUEST suivi d'un
+    // REPLY reste en deux trames : inversés, le REPLY peut compléter le quorum d'un MaekawaLock
+    // (ou les permissions d'un RicartAgrawalaLock) avant que la demande ne soit arbitrée.
+    static void piggyback(List<Message> batch) {
+        for (int i = 0; i + 1 < batch.size(); i++) {
+            Message a = batch.get(i), b = batch.get(i + 1);
+            if (a.lockId != b.lockId || a.type != Message.Type.REPLY || b.type != Message.Type.REQUEST) continue;
+            batch.set(i, b.piggybacked(a));
+            batch.remove(i + 1);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.List;
+import java.awt.*;
+
+// Connexion TCP persistante et bidirectionnelle entre deux processus.
+// Les lectures sont faites par une NioEventLoop, les écritures par l'émetteur ; ce que le noyau
+// n'a pas pris reste dans writeBuffer et la boucle le vide dès que la socket redevient inscriptible.
+// Après l'identifiant de l'initiateur, le flux n'est qu'une suite de trames MessageCodec.
+class PeerLink {
+    final SocketChannel channel;
+    final TcpTransport owner;
+    private boolean awaitingHello;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(256 * MessageCodec.FRAME_SIZE);
+    // Octets encore à écrire, en mode remplissage ; agrandi si le pair ne suit pas
+    private ByteBuffer writeBuffer = ByteBuffer.allocateDirect(64 * MessageCodec.FRAME_SIZE);
+    // OP_WRITE demandé à la boucle : c'est elle qui vide writeBuffer
+    private boolean flushing;
+    volatile int peerId = -1;
+    NioEventLoop loop;
+    SelectionKey key;  // posée et lue par la boucle seulement
+
+    public PeerLink(SocketChannel channel, TcpTransport owner, boolean accepted) throws IOException {
+        this.channel = channel;
+        this.owner = owner;
+        this.awaitingHello = accepted;
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.configureBlocking(false);
+    }
+
+    public synchronized void sendHello(int myId) throws IOException {
+        writeBuffer.putInt(myId);
+        flush();
+    }
+
+    // Trames contiguës dans le même tampon : un seul appel système pour toute la rafale
+    public synchronized void sendAll(List<Message> batch) throws IOException {
+        if (!channel.isOpen()) throw new ClosedChannelException();
+        for (Message msg : batch) {
+            if (writeBuffer.remaining() < MessageCodec.FRAME_SIZE) {
+                if (!flushing) flush();
+                if (writeBuffer.remaining() < MessageCodec.FRAME_SIZE) grow();
+            }
+            MessageCodec.encode(msg, writeBuffer);
+        }
+        if (!flushing) flush();
+    }
+
+    // Écrit ce que le noyau accepte ; le reste attend OP_WRITE au lieu d'occuper l'émetteur
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        channel.write(writeBuffer);
+        writeBuffer.compact();
+        if (writeBuffer.position() > 0) {
+            flushing = true;
+            loop.interest(this, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void grow() {
+        ByteBuffer larger = ByteBuffer.allocateDirect(2 * writeBuffer.capacity());
+        writeBuffer.flip();
+        larger.put(writeBuffer);
+        writeBuffer = larger;
+    }
+
+    // Appelé par la boucle NIO quand la socket accepte de nouveau des octets
+    synchronized void onWritable() throws IOException {
+        writeBuffer.flip();
+        channel.write(writeBuffer);
+        writeBuffer.compact();
+        if (writeBuffer.position() == 0) {
+            flushing = false;
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    // Appelé uniquement depuis la boucle NIO propriétaire de la connexion
+    void onReadable() throws IOException {
+        if (channel.read(readBuffer) < 0) throw new EOFException();
+        readBuffer.flip();
+        if (awaitingHello) {
+            if (readBuffer.remaining() < 4) {
+                readBuffer.compact();
+                return;
+            }
+            peerId = readBuffer.getInt();
+            awaitingHello = false;
+            owner.registerInbound(this);
+        }
+        while (readBuffer.remaining() >= MessageCodec.FRAME_SIZE) {
+            owner.process.deliver(MessageCodec.decode(readBuffer));
+        }
+        readBuffer.compact();
+    }
+
+    public void close() {
+        try { channel.close(); } catch (IOException e) {}
+    }
+}
@@ -0,0 +1,347 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.List;
+import java.awt.*;
+
+class Process {
+    int id;
+    Map<Integer, String> peers;
+    Transport transport;
+    Protocol protocol = Protocol.RICART_AGRAWALA;
+    // Horloge de Lamport, partagée par tous les verrous du nœud
+    final AtomicLong clock = new AtomicLong();
+    // Table des verrous par identifiant de ressource ; 0 est la section critique de la démo
+    final Map<Integer, DistributedLock> locks = new ConcurrentHashMap<>();
+    Random rand = new Random();
+    ProcessListener listener;
+    volatile boolean isAlive = true;
+    boolean console = true;  // recopie les logs sur la sortie standard
+    boolean logging = true;  // enregistre les événements dans EventLog
+    final NodeMetrics metrics = new NodeMetrics();
+    Workload workload = Workload.DEMO;  // pilote les demandes de start()
+    TraceRecorder trace;  // trace binaire du nœud, ouverte par start() si -Dra.trace.dir est donné
+    FailureDetector detector;  // démarré par start(), sauf avec -Dra.heartbeat.ms=0
+    WriteAheadLog wal;  // journal de l'état du nœud, ouvert par start() si -Dra.wal.dir est donné
+    // Pairs soupçonnés en panne : ni attendus par les verrous, ni sollicités par leurs demandes
+    final Set<Integer> suspected = ConcurrentHashMap.newKeySet();
+    // Incarnation du nœud, portée par chacune de ses trames et augmentée à chaque redémarrage ;
+    // par pair, la dernière reçue (0 : on lui a écrit sans l'avoir encore entendu). Une panne
+    // trop brève pour être soupçonnée se voit ainsi quand même. L'heure de lancement la fait
+    // croître aussi d'une exécution de la JVM à la suivante.
+    volatile long incarnation = System.currentTimeMillis();
+    final Map<Integer, Long> incarnations = new ConcurrentHashMap<>();
+    // Pairs qui n'ont pas encore acquitté notre incarnation : l'annonce leur est répétée
+    // toutes les -Dra.announce.ms
+    static final long ANNOUNCE_MS = Long.getLong("ra.announce.ms", 200);
+    final Set<Integer> unacknowledged = ConcurrentHashMap.newKeySet();
+    // Messages reçus, répartis par verrou : dans l'ordre pour un même verrou,
+    // en parallèle pour des verrous de boîtes différentes
+    final Mailbox[] mailboxes = new Mailbox[Mailbox.STRIPES];
+
+    public Process(int id, Map<Integer, String> peers, ProcessListener listener) {
+        this(id, peers, listener, new TcpTransport());
+    }
+
+    public Process(int id, Map<Integer, String> peers, ProcessListener listener, Transport transport) {
+        this.id = id;
+        this.peers = peers;
+        this.listener = listener;
+        this.transport = transport;
+        for (int i = 0; i < mailboxes.length; i++) mailboxes[i] = new Mailbox(this);
+    }
+
+    public void start() throws IOException {
+        MetricsMBean.register(this);
+        if (TraceRecorder.DIRECTORY != null) trace = TraceRecorder.open(Paths.get(TraceRecorder.DIRECTORY), id);
+        WriteAheadLog.Replay previous = new WriteAheadLog.Replay();
+        if (WriteAheadLog.DIRECTORY != null) {
+            Path dir = Paths.get(WriteAheadLog.DIRECTORY);
+            previous = WriteAheadLog.read(dir, id);
+            // Les demandes d'une exécution précédente sont abandonnées : leurs appelants n'existent plus
+            wal = WriteAheadLog.reopen(dir, id, previous, List.of());
+            clock.accumulateAndGet(previous.ceiling, Math::max);
+        }
+        transport.start(this);
+        // ... mais les pairs qu'elles différaient attendent encore leur réponse
+        for (Map.Entry<Integer, WriteAheadLog.LockState> e : previous.locks.entrySet()) {
+            for (Message request : e.getValue().deferred.values()) {
+                Message reply = new Message(Message.Type.REPLY, id, clock.get());
+                reply.lockId = e.getKey();
+                if (request.isRead()) reply.flags = Message.SHARED_GRANT;
+                sendMessage(reply, request.senderId);
+            }
+        }
+        announce();
+        if (FailureDetector.INTERVAL_MS > 0) detector = FailureDetector.start(this);
+
+        Workload.Arrivals arrivals = workload.arrivals(id - 1, peers.size());
+        new Thread(() -> {
+            while (true) {
+                try {
+                    if (!isAlive) {
+                        publishState("Panne", false);
+                        Thread.sleep(1000);
+                        continue;
+                    }
+                    if (workload.openLoop()) {
+                        Thread.sleep(arrivals.next(rand));
+                        if (isAlive) arrive();
+                        continue;
+                    }
+                    publishState("Repos", false);
+                    Thread.sleep(arrivals.next(rand));
+
+                    acquire().join();
+                    publishState("SC", true);
+                    Thread.sleep(workload.nextHold(rand));
+                    release();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }).start();
+    }
+
+    // Boucle ouverte : la demande n'attend pas les précédentes, la sortie est programmée
+    private void arrive() {
+        acquire().thenRun(() -> {
+            publishState("SC", true);
+            Workload.TIMER.schedule(() -> {
+                release();
+                publishState("Repos", false);
+            }, workload.nextHold(rand), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    // Avec un journal, la panne efface l'état de l'algorithme comme le ferait un vrai arrêt,
+    // et le redémarrage le reconstruit à partir du journal avant de traiter le moindre message
+    public void setAlive(boolean status) {
+        if (!status) {
+            this.isAlive = false;
+            log(EventLog.Kind.CRASH);
+            transport.onCrash();
+            if (wal != null) {
+                for (DistributedLock lock : locks.values()) lock.crash();
+                clock.set(0);
+            }
+        } else {
+            if (wal != null) recoverFromLog();
+            incarnation++;
+            this.isAlive = true;
+            log(EventLog.Kind.RESTART);
+            announce();
+            FailureDetector d = detector;
+            if (d != null) d.restart();
+            // Les permissions envoyées pendant la panne ont été perdues : on les redemande
+            for (DistributedLock lock : locks.values()) lock.onRestart();
+        }
+    }
+
+    // Annonce de l'incarnation à tous les pairs, même sans FailureDetector : ceux qui en
+    // connaissaient une précédente renvoient ce qu'ils nous ont envoyé pendant la panne. Répétée
+    // jusqu'à l'acquittement de chacun, car un pair qui démarre ou se reconnecte la manquerait.
+    private void announce() {
+        for (int peerId : peers.keySet()) {
+            if (peerId != id) unacknowledged.add(peerId);
+        }
+        announce(incarnation);
+    }
+
+    private void announce(long announced) {
+        // Une panne, ou une annonce plus récente, arrête les répétitions
+        if (!isAlive || incarnation != announced || unacknowledged.isEmpty()) return;
+        Message beat = new Message(Message.Type.HEARTBEAT, id, 0);
+        beat.incarnation = announced;
+        beat.flags = Message.ANNOUNCE;
+        Map<Integer, List<Message>> batch = new HashMap<>();
+        for (int peerId : unacknowledged) {
+            // Un pair soupçonné l'aura à son retour
+            if (!suspects(peerId)) batch.put(peerId, List.of(beat));
+        }
+        for (int i = 0; i < batch.size(); i++) metrics.sent(Message.Type.HEARTBEAT);
+        if (!batch.isEmpty()) transport.sendBatch(batch);
+        FailureDetector.TIMER.schedule(() -> announce(announced), ANNOUNCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void recoverFromLog() {
+        try {
+            Path dir = Paths.get(WriteAheadLog.DIRECTORY);
+            wal.close();
+            WriteAheadLog.Replay replay = WriteAheadLog.read(dir, id);
+            wal = WriteAheadLog.reopen(dir, id, replay, replay.locks.keySet());
+            clock.set(replay.ceiling);
+            replay.locks.forEach((lockId, state) -> lock(lockId).recover(state));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Toute avance de l'horloge passe par le journal, qui n'en note que les paliers
+    long advanceClock() {
+        return journaled(clock.incrementAndGet());
+    }
+
+    private long journaled(long value) {
+        WriteAheadLog w = wal;
+        if (w != null) w.clock(value);
+        return value;
+    }
+
+    void journal(WriteAheadLog.Kind kind, int lockId, int peer, long timestamp, int flags) {
+        WriteAheadLog w = wal;
+        if (w != null) w.append(kind, lockId, peer, timestamp, flags);
+    }
+
+    boolean suspects(int peerId) {
+        return suspected.contains(peerId);
+    }
+
+    // Appelé dans le thread du FailureDetector
+    void suspect(int peerId) {
+        suspected.add(peerId);
+        log(EventLog.Kind.SUSPECT, 0, peerId, null, 0);
+        for (DistributedLock lock : locks.values()) lock.onSuspect(peerId);
+    }
+
+    // Pair soupçonné qui se manifeste de nouveau, ou pair redémarré : ce qu'on lui a envoyé
+    // pendant son absence a pu se perdre. Le retour passe par chaque boîte aux lettres, derrière
+    // les messages du pair déjà reçus : une réponse en attente y est traitée avant toute relance.
+    void recover(int peerId) {
+        if (suspected.remove(peerId)) log(EventLog.Kind.RECOVERED, 0, peerId, null, 0);
+        for (int i = 0; i < mailboxes.length; i++) {
+            Message back = new Message(Message.Type.HEARTBEAT, peerId, 0);
+            back.lockId = i;
+            mailboxes[i].offer(back);
+        }
+    }
+
+    DistributedLock lock(int lockId) {
+        return locks.computeIfAbsent(lockId, l -> protocol == Protocol.MAEKAWA
+                ? new MaekawaLock(this, l) : new RicartAgrawalaLock(this, l));
+    }
+
+    // Verrou distribué asynchrone sur la section critique par défaut
+    public CompletableFuture<Void> acquire() {
+        return acquire(0);
+    }
+
+    public void release() {
+        release(0);
+    }
+
+    // Le futur est complété à l'entrée dans la section critique de la ressource lockId
+    public CompletableFuture<Void> acquire(int lockId) {
+        return lock(lockId).acquire();
+    }
+
+    // Accès en lecture : plusieurs lecteurs peuvent être ensemble en section critique
+    public CompletableFuture<Void> acquireShared(int lockId) {
+        return lock(lockId).acquireShared();
+    }
+
+    public void release(int lockId) {
+        lock(lockId).release();
+    }
+
+    void handleMessage(Message msg) {
+        if (msg.type == Message.Type.HEARTBEAT) {
+            // Retour d'un pair, déposé par recover() : lockId est le numéro de la boîte
+            for (DistributedLock lock : locks.values()) {
+                if (Math.floorMod(lock.lockId, mailboxes.length) == msg.lockId) lock.onRecover(msg.senderId);
+            }
+            return;
+        }
+        metrics.received(msg.type);
+        journaled(clock.accumulateAndGet(msg.timestamp, (c, t) -> Math.max(c, t) + 1));
+        lock(msg.lockId).handle(msg);
+    }
+
+    void sendMessage(Message msg, int destId) {
+        msg.incarnation = incarnation;
+        incarnations.putIfAbsent(destId, 0L);
+        metrics.sent(msg.type);
+        trace(EventLog.Kind.SENT, msg.lockId, destId, msg.type, msg.timestamp);
+        FailureDetector d = detector;
+        if (d != null) d.sent(destId);
+        WriteAheadLog w = wal;
+        if (w != null) w.afterCommit(() -> transport.send(msg, destId));
+        else transport.send(msg, destId);
+    }
+
+    void sendBatch(Map<Integer, List<Message>> batch) {
+        FailureDetector d = detector;
+        for (Map.Entry<Integer, List<Message>> e : batch.entrySet()) {
+            incarnations.putIfAbsent(e.getKey(), 0L);
+            for (Message msg : e.getValue()) {
+                msg.incarnation = incarnation;
+                metrics.sent(msg.type);
+                trace(EventLog.Kind.SENT, msg.lockId, e.getKey(), msg.type, msg.timestamp);
+            }
+            if (d != null) d.sent(e.getKey());
+        }
+        WriteAheadLog w = wal;
+        if (w != null) w.afterCommit(() -> transport.sendBatch(batch));
+        else transport.sendBatch(batch);
+    }
+
+    // Appelé par le transport pour chaque message reçu ; tout message est un signe de vie
+    void deliver(Message msg) {
+        if (!isAlive) return;
+        FailureDetector d = detector;
+        boolean back = d != null && d.heard(msg.senderId);
+        boolean restarted = restarted(msg.senderId, msg.incarnation);
+        if (msg.type == Message.Type.HEARTBEAT) onHeartbeat(msg);
+        else mailboxes[Math.floorMod(msg.lockId, mailboxes.length)].offer(msg);
+        if (back || restarted) recover(msg.senderId);
+    }
+
+    private void onHeartbeat(Message msg) {
+        metrics.received(msg.type);
+        if ((msg.flags & Message.ANNOUNCE) != 0) {
+            // Même répétée : notre acquittement précédent a pu se perdre
+            Message ack = new Message(Message.Type.HEARTBEAT, id, msg.incarnation);
+            ack.incarnation = incarnation;
+            ack.flags = Message.ACK;
+            metrics.sent(Message.Type.HEARTBEAT);
+            transport.send(ack, msg.senderId);
+        } else if ((msg.flags & Message.ACK) != 0 && msg.timestamp == incarnation) {
+            unacknowledged.remove(msg.senderId);
+        }
+    }
+
+    // Vrai une seule fois par incarnation nouvelle du pair, y compris la première entendue
+    // après lui avoir écrit : ce qu'on lui a envoyé avant a pu se perdre
+    private boolean restarted(int peerId, long seen) {
+        while (true) {
+            Long known = incarnations.putIfAbsent(peerId, seen);
+            if (known == null || seen <= known) return false;
+            if (incarnations.replace(peerId, known, seen)) return true;
+        }
+    }
+
+    // Ne bloque pas et n'alloue pas : le texte est construit plus tard par EventLog
+    void log(EventLog.Kind kind) {
+        log(kind, 0, 0, null, 0);
+    }
+
+    void log(EventLog.Kind kind, int lockId, int peer, Message.Type type, long timestamp) {
+        if (logging) EventLog.INSTANCE.record(this, kind, lockId, peer, type, timestamp);
+        trace(kind, lockId, peer, type, timestamp);
+    }
+
+    // Événements trop fréquents pour le journal texte : seulement dans la trace binaire
+    void trace(EventLog.Kind kind, int lockId, int peer, Message.Type type, long timestamp) {
+        TraceRecorder t = trace;
+        if (t != null) t.record(kind, lockId, peer, type, timestamp, clock.get());
+    }
+
+    void publishState(String state, boolean inCS) {
+        listener.updateState(id, state, inCS);
+    }
+}
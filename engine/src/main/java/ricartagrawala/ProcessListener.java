@@ -0,0 +1,10 @@
+package ricartagrawala;
+
+// Événements publiés par un Process : l'interface graphique en est une implémentation,
+// CountingListener permet de faire tourner l'algorithme sans affichage
+interface ProcessListener {
+    // type : message reçu pour Kind.RECEIVED, null sinon
+    void appendLog(int id, EventLog.Kind kind, Message.Type type, String log);
+    void updateState(int id, String state, boolean hasToken);
+    void announceToken(int id);
+}
@@ -0,0 +1,200 @@
+package ricartagrawala;
+
+import java.util.*;
+import javax.swing.*;
+import java.awt.*;
+
+// Panneau personnalisé pour chaque processus avec design moderne
+class ProcessPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    private static final int HEADER_HEIGHT = 60;
+    private static final int INDICATOR_Y = HEADER_HEIGHT + 15;
+
+    private int processId;
+    private String currentState = "Repos";
+    private boolean hasToken = false;
+    private boolean isDown = false;
+    private float pulseOpacity = 1.0f;
+    private long pulseStart;
+    private long flashStart;
+    private boolean flashHidden = false;
+    private Color stateColor = new Color(70, 130, 180); // Steel Blue par défaut
+    private final AnimationClock.Animation pulse = this::tickPulse;
+    private final AnimationClock.Animation requestBar = this::tickRequestBar;
+    private final AnimationClock.Animation flash = this::tickFlash;
+    
+    public ProcessPanel(int id) {
+        this.processId = id;
+        setOpaque(false);
+        setPreferredSize(new Dimension(450, 200));
+    }
+
+    // Pulsation dorée tant que le processus a le jeton : de 1,0 à 0,3 et retour en 1,4 s
+    private boolean tickPulse(long now) {
+        if (!hasToken) return false;
+        long phase = (now - pulseStart) % 1400;
+        pulseOpacity = phase < 700 ? 1.0f - phase / 1000f : 0.3f + (phase - 700) / 1000f;
+        repaint();
+        return true;
+    }
+
+    // Barre de chargement de l'état "Demande" : seule la bande de l'indicateur est redessinée
+    private boolean tickRequestBar(long now) {
+        repaint(10, INDICATOR_Y, getWidth() - 20, 25);
+        return currentState.equals("Demande");
+    }
+
+    // Clignotement à l'annonce du jeton : trois disparitions de 200 ms
+    private boolean tickFlash(long now) {
+        int phase = (int) ((now - flashStart) / 200);
+        boolean done = phase >= 7;
+        boolean hidden = !done && phase >= 2 && phase % 2 == 0;
+        if (hidden != flashHidden) {
+            flashHidden = hidden;
+            repaint();
+        }
+        return !done;
+    }
+
+    public void flash() {
+        flashStart = System.currentTimeMillis();
+        AnimationClock.SHARED.start(flash);
+    }
+    
+    public void updateState(String state, boolean token, boolean alive) {
+        this.currentState = state;
+        this.hasToken = token;
+        this.isDown = !alive;
+        
+        // Mise à jour des couleurs selon l'état
+        switch (state) {
+            case "Repos":
+                stateColor = alive ? new Color(70, 130, 180) : new Color(128, 128, 128); // Steel Blue / Gray
+                break;
+            case "Demande":
+                stateColor = new Color(255, 165, 0); // Orange
+                break;
+            case "SC":
+                stateColor = new Color(50, 205, 50); // Lime Green
+                break;
+            case "Panne":
+                stateColor = new Color(220, 20, 60); // Crimson
+                break;
+        }
+        
+        // Animations : pulsation du jeton, barre de la demande
+        if (token) {
+            pulseStart = System.currentTimeMillis();
+            AnimationClock.SHARED.start(pulse);
+        } else {
+            AnimationClock.SHARED.stop(pulse);
+            pulseOpacity = 1.0f;
+        }
+        if (state.equals("Demande")) AnimationClock.SHARED.start(requestBar);
+        
+        repaint();
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (flashHidden) return;
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        
+        int width = getWidth();
+        int height = getHeight();
+        int headerHeight = HEADER_HEIGHT;
+        
+        // Fond principal avec gradient
+        Color lightColor = stateColor.brighter();
+        Color darkColor = stateColor.darker();
+        
+        if (hasToken) {
+            // Effet de brillance pour le jeton
+            Color glowColor = new Color(255, 215, 0, (int)(pulseOpacity * 100)); // Gold avec transparence
+            g2d.setColor(glowColor);
+            g2d.fillRoundRect(-5, -5, width + 10, height + 10, 20, 20);
+        }
+        
+        GradientPaint gradient = new GradientPaint(0, 0, lightColor, 0, height, darkColor);
+        g2d.setPaint(gradient);
+        g2d.fillRoundRect(0, 0, width, height, 15, 15);
+        
+        // Bordure avec effet d'ombre
+        g2d.setColor(new Color(0, 0, 0, 30));
+        g2d.fillRoundRect(3, 3, width, height, 15, 15);
+        g2d.setColor(stateColor.darker());
+        g2d.setStroke(new BasicStroke(2));
+        g2d.drawRoundRect(0, 0, width - 1, height - 1, 15, 15);
+        
+        // En-tête du processus
+        g2d.setColor(new Color(255, 255, 255, 200));
+        g2d.fillRoundRect(5, 5, width - 10, headerHeight, 10, 10);
+        
+        // Icône du processus (cercle coloré)
+        g2d.setColor(stateColor);
+        g2d.fillOval(15, 15, 30, 30);
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(new Font("Arial", Font.BOLD, 16));
+        g2d.drawString("P" + processId, 23, 35);
+        
+        // Titre du processus
+        g2d.setColor(Color.BLACK);
+        g2d.setFont(new Font("Arial", Font.BOLD, 18));
+        g2d.drawString("PROCESSUS " + processId, 60, 30);
+        
+        // État actuel
+        g2d.setFont(new Font("Arial", Font.PLAIN, 14));
+        String stateText = "État: " + currentState;
+        if (hasToken) stateText += " 🔑 JETON";
+        g2d.drawString(stateText, 60, 50);
+        
+        // Indicateur visuel de l'état
+        int indicatorY = INDICATOR_Y;
+        g2d.setColor(new Color(255, 255, 255, 150));
+        g2d.fillRoundRect(10, indicatorY, width - 20, 25, 8, 8);
+        
+        // Barre de progression/état
+        g2d.setColor(stateColor);
+        int barWidth = (width - 30);
+        if (currentState.equals("Demande")) {
+            // Animation de chargement pour l'état "Demande"
+            long time = System.currentTimeMillis();
+            int animatedWidth = (int)((Math.sin(time * 0.01) + 1) * 0.5 * barWidth);
+            g2d.fillRoundRect(15, indicatorY + 3, animatedWidth, 19, 6, 6);
+        } else {
+            g2d.fillRoundRect(15, indicatorY + 3, barWidth, 19, 6, 6);
+        }
+        
+        // Texte de l'état dans la barre
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(new Font("Arial", Font.BOLD, 12));
+        FontMetrics fm = g2d.getFontMetrics();
+        String statusText = currentState.toUpperCase();
+        if (isDown) statusText = "HORS SERVICE";
+        int textX = (width - fm.stringWidth(statusText)) / 2;
+        g2d.drawString(statusText, textX, indicatorY + 17);
+        
+        // Effets spéciaux selon l'état
+        if (hasToken) {
+            // Particules dorées pour le jeton
+            g2d.setColor(new Color(255, 215, 0, (int)(pulseOpacity * 150)));
+            Random rand = new Random(processId * 1000 + System.currentTimeMillis() / 200);
+            for (int i = 0; i < 8; i++) {
+                int x = rand.nextInt(width - 20) + 10;
+                int y = rand.nextInt(height - 100) + headerHeight + 50;
+                g2d.fillOval(x, y, 4, 4);
+            }
+        }
+        
+        if (currentState.equals("Panne")) {
+            // Effet de "cassé" pour les pannes
+            g2d.setColor(new Color(255, 0, 0, 100));
+            g2d.setStroke(new BasicStroke(3));
+            g2d.drawLine(10, 10, width - 10, height - 10);
+            g2d.drawLine(width - 10, 10, 10, height - 10);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ricartagrawala;
+
+// Variante de l'algorithme utilisée par un Process
+enum Protocol {
+    RICART_AGRAWALA,      // une demande à tous les pairs à chaque entrée : 2(N-1) messages
+    ROUCAIROL_CARVALHO,   // les permissions reçues restent acquises tant que le pair ne les redemande pas
+    MAEKAWA               // quorums en grille : environ 2·sqrt(N) pairs contactés par entrée
+}
@@ -0,0 +1,213 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.List;
+import java.awt.*;
+
+// Ricart & Agrawala pour une ressource, avec en option la réutilisation des
+// permissions de Roucairol-Carvalho. Variante lecteurs/rédacteurs : deux lectures
+// ne se diffèrent jamais l'une l'autre.
+class RicartAgrawalaLock extends DistributedLock {
+    Set<Integer> repliesPending = ConcurrentHashMap.newKeySet();
+    // Roucairol-Carvalho : pairs dont on détient encore la permission
+    Set<Integer> heldPermissions = ConcurrentHashMap.newKeySet();
+    // REQUEST différés, un seul par pair (un doublon remplace le précédent) ; protégé par le moniteur
+    Map<Integer, Message> deferred = new LinkedHashMap<>();
+    // Pairs soupçonnés dont la demande en cours se passe ; protégé par le moniteur
+    private final Set<Integer> excused = new HashSet<>();
+    // Dernière demande de chaque pair à laquelle on a répondu ; protégé par le moniteur. La même
+    // demande renvoyée après un retour n'obtient pas un second REPLY, que sa demande suivante
+    // prendrait pour le sien.
+    private final Map<Integer, Message> answered = new HashMap<>();
+
+    public RicartAgrawalaLock(Process owner, int lockId) {
+        super(owner, lockId);
+    }
+
+    synchronized void requestCS(boolean shared) {
+        requestTimestamp = owner.advanceClock();
+        requestingCS = true;
+        this.shared = shared;
+        owner.journal(WriteAheadLog.Kind.REQUEST, lockId, 0, requestTimestamp, shared ? Message.READ : 0);
+        repliesPending.clear();
+        excused.clear();
+        permission = new CompletableFuture<>();
+        for (int peerId : owner.peers.keySet()) {
+            if (peerId == owner.id || holdsPermission(peerId)) continue;
+            if (owner.suspects(peerId)) excused.add(peerId);
+            else repliesPending.add(peerId);
+        }
+        if (repliesPending.isEmpty()) permission.complete(null);
+        for (int peerId : repliesPending) {
+            owner.sendMessage(request(Message.Type.REQUEST), peerId);
+        }
+        owner.publishState("Demande", false);
+    }
+
+    void exitCS() {
+        Map<Integer, List<Message>> replies = new LinkedHashMap<>();
+        synchronized (this) {
+            inCS = false;
+            requestingCS = false;
+            log(EventLog.Kind.EXIT);
+            owner.journal(WriteAheadLog.Kind.EXIT, lockId, 0, 0, 0);
+            owner.publishState("Repos", false);
+            List<Message> reply = List.of(reply(false)), sharedReply = List.of(reply(true));
+            for (Message request : deferred.values()) {
+                heldPermissions.remove(request.senderId);
+                answered.put(request.senderId, request);
+                replies.put(request.senderId, request.isRead() ? sharedReply : reply);
+            }
+            deferred.clear();
+        }
+        // Toute la rafale de REPLY part d'un seul coup, hors du moniteur
+        if (!replies.isEmpty()) owner.sendBatch(replies);
+    }
+
+    private boolean holdsPermission(int peerId) {
+        return owner.protocol == Protocol.ROUCAIROL_CARVALHO && heldPermissions.contains(peerId);
+    }
+
+    // Sa demande différée est gardée : s'il n'était que lent, il aura sa réponse à notre sortie
+    void onSuspect(int peerId) {
+        boolean granted;
+        synchronized (this) {
+            if (!requestingCS || inCS || !repliesPending.remove(peerId)) return;
+            excused.add(peerId);
+            granted = repliesPending.isEmpty();
+        }
+        if (granted) permission.complete(null);
+    }
+
+    // Tant que notre entrée n'est pas acquise, il doit de nouveau donner sa permission, et notre
+    // demande a pu se perdre pendant son absence : on la lui renvoie. Une fois l'entrée acquise,
+    // sa demande sera différée comme toute autre.
+    synchronized void onRecover(int peerId) {
+        boolean wasExcused = excused.remove(peerId);
+        if (!requestingCS || inCS || repliesPending.isEmpty()) return;
+        if (!wasExcused && !repliesPending.contains(peerId)) return;
+        repliesPending.add(peerId);
+        owner.sendMessage(request(Message.Type.REQUEST), peerId);
+    }
+
+    synchronized void onRestart() {
+        if (!requestingCS || inCS) return;
+        for (int peerId : repliesPending) owner.sendMessage(request(Message.Type.REQUEST), peerId);
+    }
+
+    @Override
+    void enterCS() {
+        super.enterCS();
+        owner.journal(WriteAheadLog.Kind.ENTER, lockId, 0, 0, 0);
+    }
+
+    @Override
+    synchronized void crash() {
+        requestingCS = false;
+        inCS = false;
+        requestTimestamp = 0;
+        shared = false;
+        repliesPending.clear();
+        heldPermissions.clear();
+        excused.clear();
+        deferred.clear();
+        answered.clear();
+    }
+
+    // Les permissions reçues avant la panne ne sont pas journalisées : elles sont toutes
+    // redemandées par onRestart(), un pair qui les avait données les redonne aussitôt
+    @Override
+    void recover(WriteAheadLog.LockState state) {
+        boolean granted;
+        synchronized (this) {
+            requestTimestamp = state.timestamp;
+            shared = state.shared;
+            requestingCS = true;
+            inCS = state.inCS;
+            deferred.putAll(state.deferred);
+            if (inCS) return;
+            for (int peerId : owner.peers.keySet()) {
+                if (peerId == owner.id) continue;
+                if (owner.suspects(peerId)) excused.add(peerId);
+                else repliesPending.add(peerId);
+            }
+            granted = repliesPending.isEmpty();
+        }
+        if (granted) permission.complete(null);
+    }
+
+    void handle(Message msg) {
+        CompletableFuture<Void> granted = null;
+        synchronized (this) {
+            logReceived(msg);
+            switch (msg.type) {
+                case REQUEST:
+                    onRequest(msg);
+                    break;
+                case REPLY:
+                    if (onReply(msg)) granted = permission;
+                    break;
+                case REQUEST_REPLY:
+                    if (onReply(msg)) granted = permission;
+                    onRequest(msg);
+                    break;
+            }
+        }
+        if (granted != null) granted.complete(null);
+    }
+
+    // Appelé sous le moniteur
+    private void onRequest(Message msg) {
+        Message previous = answered.get(msg.senderId);
+        if (previous != null && previous.timestamp == msg.timestamp && previous.incarnation == msg.incarnation) return;
+        // Priorité à la demande la plus ancienne, puis au plus petit identifiant
+        // Deux lectures ne s'excluent pas : réponse immédiate, même en section critique
+        boolean readers = requestingCS && shared && msg.isRead();
+        boolean replyNow = !requestingCS || readers ||
+                (msg.timestamp < requestTimestamp) ||
+                (msg.timestamp == requestTimestamp && msg.senderId < owner.id);
+        // Toutes les permissions obtenues : l'entrée est acquise, on diffère comme en SC
+        boolean committed = inCS || (requestingCS && repliesPending.isEmpty());
+        if (replyNow && (readers || !committed)) {
+            answered.put(msg.senderId, msg);
+            if (heldPermissions.remove(msg.senderId) && requestingCS && !committed) {
+                // On rend une permission sur laquelle comptait notre demande : on la redemande
+                // dans la même trame que le REPLY
+                repliesPending.add(msg.senderId);
+                Message combined = request(Message.Type.REQUEST_REPLY);
+                if (msg.isRead()) combined.flags |= Message.SHARED_GRANT;
+                owner.sendMessage(combined, msg.senderId);
+            } else {
+                owner.sendMessage(reply(msg.isRead()), msg.senderId);
+            }
+        } else {
+            deferred.put(msg.senderId, msg);
+            owner.trace(EventLog.Kind.DEFERRED, lockId, msg.senderId, msg.type, msg.timestamp);
+            owner.journal(WriteAheadLog.Kind.DEFERRED, lockId, msg.senderId, msg.timestamp, msg.flags & Message.READ);
+        }
+    }
+
+    // Appelé sous le moniteur ; vrai si c'était le dernier REPLY attendu.
+    // Une permission donnée à une lecture n'est pas conservée : son donneur, qui ne la détient
+    // plus non plus, pourrait être en train de lire quand on voudra écrire.
+    private boolean onReply(Message msg) {
+        if (owner.protocol == Protocol.ROUCAIROL_CARVALHO && (msg.flags & Message.SHARED_GRANT) == 0) {
+            heldPermissions.add(msg.senderId);
+        }
+        excused.remove(msg.senderId);
+        return repliesPending.remove(msg.senderId) && repliesPending.isEmpty() && requestingCS;
+    }
+
+    private Message request(Message.Type type) {
+        Message msg = message(type, requestTimestamp);
+        if (shared) msg.flags = Message.READ;
+        return msg;
+    }
+
+    private Message reply(boolean toReader) {
+        Message msg = message(Message.Type.REPLY, owner.clock.get());
+        if (toReader) msg.flags = Message.SHARED_GRANT;
+        return msg;
+    }
+}
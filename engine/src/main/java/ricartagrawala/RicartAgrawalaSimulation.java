@@ -0,0 +1,169 @@
+// Simulation de l'Algorithme de Ricart & Agrawala (1983) avec interface moderne
+
+package ricartagrawala;
+
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.List;
+import javax.swing.*;
+import java.awt.*;
+
+public class RicartAgrawalaSimulation {
+    public static void main(String[] args) throws Exception {
+        // Mode sans interface :
+        // java RicartAgrawalaSimulation --headless [processus] [secondes] [tcp|memory] [demo|poisson|bursty] [demandes/s] [uniform|exponential|pareto] [skew]
+        // demo est la boucle fermée de la démo ; poisson et bursty arrivent en boucle ouverte au
+        // débit total donné, avec des SC de 50 ms en moyenne
+        if (args.length > 0 && args[0].equals("--headless")) {
+            int count = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+            int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+            boolean inMemory = args.length > 3 && args[3].equals("memory");
+            String arrivals = args.length > 4 ? args[4] : "demo";
+            double rate = args.length > 5 ? Double.parseDouble(args[5]) : 10;
+            Workload.Distribution hold = holds(args.length > 6 ? args[6] : "exponential", 50);
+            double skew = args.length > 7 ? Double.parseDouble(args[7]) : 0;
+            Workload workload = switch (arrivals) {
+                case "poisson" -> Workload.poisson(rate, skew, hold);
+                case "bursty" -> Workload.bursty(rate, skew, hold);
+                default -> Workload.DEMO;
+            };
+            runHeadless(count, seconds, inMemory, workload);
+            return;
+        }
+        // Simulation en temps virtuel :
+        // java RicartAgrawalaSimulation --simulate [processus] [heures] [graine] [ricart_agrawala|roucairol_carvalho|maekawa] [verrous] [part de lectures]
+        if (args.length > 0 && args[0].equals("--simulate")) {
+            int count = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+            double hours = args.length > 2 ? Double.parseDouble(args[2]) : 24;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+            Protocol protocol = args.length > 4 ? Protocol.valueOf(args[4].toUpperCase()) : Protocol.RICART_AGRAWALA;
+            DiscreteEventSimulation sim = new DiscreteEventSimulation(count, seed, protocol);
+            if (args.length > 5) sim.lockCount = Integer.parseInt(args[5]);
+            if (args.length > 6) sim.readRatio = Double.parseDouble(args[6]);
+            long start = System.nanoTime();
+            sim.run((long) (hours * 3_600_000));
+            System.out.println(sim.report());
+            System.out.printf("Durée réelle : %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        // Comparaison des protocoles en fonction du nombre de processus :
+        // java RicartAgrawalaSimulation --compare [graine]
+        if (args.length > 0 && args[0].equals("--compare")) {
+            long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+            DiscreteEventSimulation.compareProtocols(new int[] { 4, 9, 16, 25, 36, 49, 64, 81, 100 }, seed, System.out);
+            return;
+        }
+
+        // Débit et attente en fonction de la charge offerte, en boucle ouverte :
+        // java RicartAgrawalaSimulation --sweep [processus] [poisson|bursty] [uniform|exponential|pareto] [skew] [protocole] [graine]
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            int count = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+            String arrivals = args.length > 2 ? args[2] : "poisson";
+            String holds = args.length > 3 ? args[3] : "exponential";
+            double skew = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+            Protocol protocol = args.length > 5 ? Protocol.valueOf(args[5].toUpperCase()) : Protocol.RICART_AGRAWALA;
+            long seed = args.length > 6 ? Long.parseLong(args[6]) : 42;
+            double meanHold = 50;
+            Workload.Distribution hold = holds(holds, meanHold);
+            Workload base = arrivals.equals("bursty") ? Workload.bursty(1, skew, hold) : Workload.poisson(1, skew, hold);
+            DiscreteEventSimulation.loadSweep(count, base, meanHold, protocol, seed, 600_000, System.out);
+            return;
+        }
+
+        // Rejeu dans l'interface des traces binaires enregistrées avec -Dra.trace.dir :
+        // java RicartAgrawalaSimulation --replay [répertoire] [vitesse]
+        if (args.length > 1 && args[0].equals("--replay")) {
+            double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1;
+            replayInGui(TraceReplayer.load(Paths.get(args[1])), speed);
+            return;
+        }
+
+        // Analyse des traces : java RicartAgrawalaSimulation --trace-report [répertoire]
+        if (args.length > 1 && args[0].equals("--trace-report")) {
+            TraceReplayer.report(TraceReplayer.load(Paths.get(args[1])), System.out);
+            return;
+        }
+
+        // Configuration Look & Feel pour une meilleure apparence
+        /*try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeel());
+        } catch (Exception e) {
+            // Utiliser le look par défaut si erreur
+        }*/
+        
+        SwingUtilities.invokeLater(() -> {
+            new MenuInterface().setVisible(true);
+        });
+    }
+
+    // Loi des durées de section critique, de moyenne meanHold ms
+    static Workload.Distribution holds(String name, double meanHold) {
+        return switch (name) {
+            case "uniform" -> Workload.uniform(Math.round(meanHold / 2), Math.round(meanHold * 3 / 2));
+            case "pareto" -> Workload.pareto(1.5, meanHold);
+            default -> Workload.exponential(meanHold);
+        };
+    }
+
+    // Les processus de l'interface ne sont jamais démarrés : seule la trace les anime
+    static void replayInGui(List<TraceRecorder.Entry> entries, double speed) throws Exception {
+        Set<Integer> ids = new TreeSet<>();
+        for (TraceRecorder.Entry e : entries) ids.add(e.node);
+        GUI[] created = new GUI[1];
+        SwingUtilities.invokeAndWait(() -> {
+            GUI gui = created[0] = new GUI();
+            Map<Integer, String> peers = new HashMap<>();
+            for (int id : ids) peers.put(id, "localhost:" + (5000 + id));
+            for (int id : ids) gui.addProcess(new Process(id, peers, gui));
+            gui.started = true;
+            gui.startButton.setText(" REJEU DE LA TRACE");
+            gui.startButton.setEnabled(false);
+            gui.show();
+        });
+        GUI gui = created[0];
+        ProcessListener replay = new ProcessListener() {
+            public void appendLog(int id, EventLog.Kind kind, Message.Type type, String log) {
+                if (kind == EventLog.Kind.CRASH || kind == EventLog.Kind.RESTART) {
+                    gui.processes.get(id).isAlive = kind == EventLog.Kind.RESTART;
+                }
+                gui.appendLog(id, kind, type, log);
+            }
+
+            public void updateState(int id, String state, boolean hasToken) {
+                gui.updateState(id, state, hasToken);
+            }
+
+            public void announceToken(int id) {
+                gui.announceToken(id);
+            }
+        };
+        TraceReplayer.replay(entries, replay, speed);
+    }
+
+    static void runHeadless(int count, int seconds, boolean inMemory, Workload workload) throws Exception {
+        Map<Integer, String> peers = new HashMap<>();
+        for (int i = 1; i <= count; i++) {
+            peers.put(i, "localhost:" + (5000 + i));
+        }
+        CountingListener listener = new CountingListener();
+        Map<Integer, Process> network = new ConcurrentHashMap<>();
+        List<Process> processes = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Transport transport = inMemory ? new InMemoryTransport(network) : new TcpTransport();
+            Process p = new Process(i, peers, listener, transport);
+            p.workload = workload;
+            processes.add(p);
+            // Inscrit avant tout start() : les premiers messages trouvent leur destinataire
+            if (inMemory) network.put(i, p);
+        }
+        for (Process p : processes) p.start();
+        System.out.println("Charge : " + workload);
+        Thread.sleep(seconds * 1000L);
+        System.out.println("Entrées en section critique en " + seconds + " s : " + listener.total()
+                + " " + new TreeMap<>(listener.entries));
+        System.out.println(new MetricsMBean(MetricsMBean.NODES::values).summary());
+        System.exit(0);
+    }
+}
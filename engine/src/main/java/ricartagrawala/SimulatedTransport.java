@@ -0,0 +1,20 @@
+package ricartagrawala;
+
+// Transport de la simulation : un envoi programme une livraison dans le temps virtuel
+class SimulatedTransport implements Transport {
+    private final DiscreteEventSimulation sim;
+    private final int ownerId;
+
+    public SimulatedTransport(DiscreteEventSimulation sim, int ownerId) {
+        this.sim = sim;
+        this.ownerId = ownerId;
+    }
+
+    public void start(Process owner) {}
+
+    public void send(Message msg, int destId) {
+        sim.send(msg, ownerId, destId);
+    }
+
+    public void onCrash() {}
+}
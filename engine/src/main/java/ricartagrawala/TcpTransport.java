@@ -0,0 +1,111 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.List;
+import java.awt.*;
+
+// Transport TCP : une connexion persistante par pair, lectures par les NioEventLoop
+class TcpTransport implements Transport {
+    // Exécuteur partagé des envois : threads virtuels si la JVM en a (JDK 21+), sinon pool borné.
+    // Réglable avec -Dra.send.executor=virtual|pool et -Dra.send.threads=N
+    static final ExecutorService SENDERS = createSendExecutor();
+
+    Process process;
+    ServerSocketChannel server;
+    // Une connexion persistante par pair, réutilisée pour tous les messages
+    Map<Integer, PeerLink> links = new ConcurrentHashMap<>();
+    // Envois vers chaque pair : dans l'ordre, même après une reconnexion
+    Map<Integer, Outbox> outboxes = new ConcurrentHashMap<>();
+
+    static ExecutorService createSendExecutor() {
+        if (System.getProperty("ra.send.executor", "virtual").equals("virtual")) {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // JDK antérieur au 21 : pool borné
+            }
+        }
+        int threads = Integer.getInteger("ra.send.threads",
+                Math.max(2, Runtime.getRuntime().availableProcessors()));
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    public void start(Process owner) throws IOException {
+        this.process = owner;
+        String[] addr = owner.peers.get(owner.id).split(":");
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(Integer.parseInt(addr[1])));
+        NioEventLoop.next().registerServer(server, this);
+    }
+
+    public void send(Message msg, int destId) {
+        outbox(destId).offer(msg);
+    }
+
+    public void sendBatch(Map<Integer, List<Message>> batch) {
+        batch.forEach((destId, msgs) -> outbox(destId).offerAll(msgs));
+    }
+
+    private Outbox outbox(int destId) {
+        return outboxes.computeIfAbsent(destId, d -> new Outbox(this, d));
+    }
+
+    // Appelé par l'Outbox du pair : une seule écriture pour tout le lot
+    void write(int destId, List<Message> batch) {
+        try {
+            PeerLink link = links.get(destId);
+            if (link != null) {
+                try {
+                    link.sendAll(batch);
+                    return;
+                } catch (IOException e) {
+                    // Connexion périmée (pair redémarré) : on la remplace une fois
+                    dropLink(link);
+                }
+            }
+            connect(destId).sendAll(batch);
+        } catch (IOException e) {
+            // Une fois le pair soupçonné, les battements de cœur qu'on lui envoie échouent sans bruit
+            if (!process.suspects(destId)) process.log(EventLog.Kind.SEND_FAILED, 0, destId, null, 0);
+        }
+    }
+
+    // Une panne coupe toutes les connexions ; elles seront rouvertes au prochain envoi
+    public void onCrash() {
+        for (PeerLink link : links.values()) link.close();
+        links.clear();
+    }
+
+    // Sans verrou : seule l'Outbox du pair se connecte à lui, et une connexion lente ne doit pas
+    // retenir les envois vers les autres pairs. Si le pair s'est connecté à nous entre-temps,
+    // sa connexion l'emporte et la nôtre est refermée.
+    private PeerLink connect(int destId) throws IOException {
+        PeerLink link = links.get(destId);
+        if (link != null) return link;
+        String[] addr = process.peers.get(destId).split(":");
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(addr[0], Integer.parseInt(addr[1])));
+        link = new PeerLink(channel, this, false);
+        link.peerId = destId;
+        NioEventLoop.next().register(link);
+        link.sendHello(process.id);
+        PeerLink existing = links.putIfAbsent(destId, link);
+        if (existing == null) return link;
+        link.close();
+        return existing;
+    }
+
+    // Appelé par une boucle NIO quand un pair accepté s'est identifié
+    void registerInbound(PeerLink link) {
+        links.putIfAbsent(link.peerId, link);
+    }
+
+    void dropLink(PeerLink link) {
+        links.remove(link.peerId, link);
+        link.close();
+    }
+}
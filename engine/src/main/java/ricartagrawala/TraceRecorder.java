@@ -0,0 +1,117 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.List;
+import java.awt.*;
+
+// Trace binaire d'un nœud : un enregistrement de taille fixe par événement du protocole
+// (envoi, réception, demande différée, entrée, sortie, panne...), ajouté à la suite d'un
+// fichier projeté en mémoire. Ni formatage, ni appel système, ni verrou sur le chemin de
+// l'algorithme : une réservation par incrément atomique, quelques écritures, et le noyau
+// recopie les pages sur disque, même si la JVM est tuée. Activée par -Dra.trace.dir.
+class TraceRecorder {
+    static final String DIRECTORY = System.getProperty("ra.trace.dir");
+    static final long MAGIC = 0x5241_5452_4143_4531L;  // "RATRACE1"
+    // En-tête : magic(8) version(2) taille d'enregistrement(2) nœud(4) origine en ns depuis l'époque(8) réservé(8)
+    static final int HEADER = 32;
+    // Enregistrement : temps en ns depuis l'origine(8) horloge de Lamport(8) horodatage du message(8)
+    // pair(4) verrou(4) genre+1(1) type+1(1) réservé(6). Genre à 0 : case jamais écrite.
+    static final int RECORD = 40;
+    // Le fichier est projeté par régions (-Dra.trace.region, en octets) au fil de sa croissance
+    private static final long REGION = Long.getLong("ra.trace.region", 16L << 20);
+
+    // Origine commune aux nœuds de la JVM : leurs traces se fusionnent sans décalage
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final long ORIGIN_EPOCH_NANOS = System.currentTimeMillis() * 1_000_000L;
+
+    private final MappedFile file;
+    private final AtomicLong next = new AtomicLong();
+
+    private TraceRecorder(FileChannel channel, int nodeId) throws IOException {
+        file = new MappedFile(channel, HEADER, RECORD, REGION);
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putLong(MAGIC).putShort((short) 1).putShort((short) RECORD).putInt(nodeId)
+                .putLong(ORIGIN_EPOCH_NANOS).flip();
+        channel.write(header, 0);
+    }
+
+    // Un fichier neuf node-<id>.trace par nœud ; une trace précédente est remplacée
+    static TraceRecorder open(Path dir, int nodeId) throws IOException {
+        Files.createDirectories(dir);
+        return new TraceRecorder(FileChannel.open(dir.resolve("node-" + nodeId + ".trace"), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE), nodeId);
+    }
+
+    void record(EventLog.Kind kind, int lockId, int peer, Message.Type type, long timestamp, long clock) {
+        long index = next.getAndIncrement();
+        MappedByteBuffer region;
+        try {
+            region = file.region(index);
+        } catch (IOException e) {
+            return;  // disque plein : la trace s'arrête, pas l'algorithme
+        }
+        int at = file.offset(index);
+        region.putLong(at, System.nanoTime() - ORIGIN_NANOS);
+        region.putLong(at + 8, clock);
+        region.putLong(at + 16, timestamp);
+        region.putInt(at + 24, peer);
+        region.putInt(at + 28, lockId);
+        region.put(at + 33, (byte) (type == null ? 0 : type.ordinal() + 1));
+        // Le genre en dernier : une case à moitié écrite reste vide pour le lecteur
+        region.put(at + 32, (byte) (kind.ordinal() + 1));
+    }
+
+    // Un événement relu d'une trace
+    static final class Entry {
+        int node;
+        long time;  // ns depuis l'époque, pour fusionner les traces de plusieurs nœuds
+        long clock;
+        long timestamp;
+        int peer;
+        int lockId;
+        EventLog.Kind kind;
+        Message.Type type;
+    }
+
+    // Relit une trace jusqu'à sa première case vide (fin de la trace, ou arrêt brutal)
+    static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readLong() != MAGIC) throw new IOException(file + " n'est pas une trace");
+            in.readShort();
+            int size = in.readShort();
+            int node = in.readInt();
+            long origin = in.readLong();
+            in.readLong();
+            byte[] record = new byte[size];
+            ByteBuffer b = ByteBuffer.wrap(record);
+            EventLog.Kind[] kinds = EventLog.Kind.values();
+            Message.Type[] types = Message.Type.values();
+            while (true) {
+                in.readFully(record);
+                if (record[32] == 0) break;
+                Entry e = new Entry();
+                e.node = node;
+                e.time = origin + b.getLong(0);
+                e.clock = b.getLong(8);
+                e.timestamp = b.getLong(16);
+                e.peer = b.getInt(24);
+                e.lockId = b.getInt(28);
+                e.kind = kinds[record[32] - 1];
+                e.type = record[33] == 0 ? null : types[record[33] - 1];
+                entries.add(e);
+            }
+        } catch (EOFException e) {
+            // trace tronquée dans l'en-tête ou un enregistrement : on garde ce qui a été lu
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,104 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.List;
+import java.awt.*;
+
+// Rejeu des traces binaires d'un répertoire, fusionnées dans l'ordre du temps : vers un
+// ProcessListener (l'interface graphique, par exemple) ou en rapport d'analyse
+class TraceReplayer {
+    static List<TraceRecorder.Entry> load(Path path) throws IOException {
+        List<TraceRecorder.Entry> all = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "*.trace")) {
+                for (Path file : files) all.addAll(TraceRecorder.read(file));
+            }
+        } else {
+            all.addAll(TraceRecorder.read(path));
+        }
+        all.sort(Comparator.comparingLong(e -> e.time));
+        return all;
+    }
+
+    // speed : 1 = temps réel, 10 = dix fois plus vite, 0 = sans attente
+    static void replay(List<TraceRecorder.Entry> entries, ProcessListener listener, double speed) throws InterruptedException {
+        if (entries.isEmpty()) return;
+        long start = entries.get(0).time;
+        long wallStart = System.nanoTime();
+        StringBuilder b = new StringBuilder(128);
+        for (TraceRecorder.Entry e : entries) {
+            if (speed > 0) {
+                long due = wallStart + (long) ((e.time - start) / speed);
+                long delay = due - System.nanoTime();
+                if (delay > 0) Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+            }
+            b.setLength(0);
+            listener.appendLog(e.node, e.kind, e.type,
+                    EventLog.describe(b, e.kind, e.lockId, e.peer, e.type, e.timestamp, e.clock).toString());
+            switch (e.kind) {
+                case REQUESTED: listener.updateState(e.node, "Demande", false); break;
+                case ENTER:
+                case ENTER_SHARED:
+                    listener.updateState(e.node, "SC", true);
+                    listener.announceToken(e.node);
+                    break;
+                case EXIT:
+                case RESTART: listener.updateState(e.node, "Repos", false); break;
+                case CRASH: listener.updateState(e.node, "Panne", false); break;
+                default: break;
+            }
+        }
+    }
+
+    // Par nœud : messages, demandes différées, entrées, pannes et attente demande → entrée
+    static void report(List<TraceRecorder.Entry> entries, PrintStream out) {
+        Map<Integer, long[]> nodes = new TreeMap<>();  // envoyés, reçus, différés, entrées, pannes, attente totale, attente max
+        Map<Long, Deque<Long>> pending = new HashMap<>();  // (nœud, verrou) → dates des demandes en cours
+        for (TraceRecorder.Entry e : entries) {
+            long[] n = nodes.computeIfAbsent(e.node, k -> new long[7]);
+            Deque<Long> requests = pending.computeIfAbsent(((long) e.node << 32) | (e.lockId & 0xFFFFFFFFL), k -> new ArrayDeque<>());
+            switch (e.kind) {
+                case SENT: n[0]++; break;
+                case RECEIVED: n[1]++; break;
+                case DEFERRED: n[2]++; break;
+                case REQUESTED: requests.add(e.time); break;
+                case ENTER:
+                case ENTER_SHARED:
+                    n[3]++;
+                    if (!requests.isEmpty()) {
+                        long wait = e.time - requests.poll();
+                        n[5] += wait;
+                        n[6] = Math.max(n[6], wait);
+                    }
+                    break;
+                case CRASH:
+                    n[4]++;
+                    requests.clear();
+                    break;
+                default: break;
+            }
+        }
+        out.println("   nœud |  envoyés    reçus  différés |  entrées  msg/SC | attente moy. (ms)  max (ms) | pannes");
+        long[] total = new long[7];
+        for (Map.Entry<Integer, long[]> e : nodes.entrySet()) {
+            long[] n = e.getValue();
+            print(out, String.format("%7s", "P" + e.getKey()), n);
+            for (int i = 0; i < 6; i++) total[i] += n[i];
+            total[6] = Math.max(total[6], n[6]);
+        }
+        print(out, "  total", total);
+        if (!entries.isEmpty()) {
+            out.printf("%d événements sur %.1f s%n", entries.size(),
+                    (entries.get(entries.size() - 1).time - entries.get(0).time) / 1e9);
+        }
+    }
+
+    private static void print(PrintStream out, String name, long[] n) {
+        out.printf("%s | %8d %8d %9d | %8d %7.1f | %17.1f %9.1f | %6d%n", name, n[0], n[1], n[2], n[3],
+                n[3] == 0 ? 0.0 : (double) n[0] / n[3], n[3] == 0 ? 0.0 : n[5] / 1e6 / n[3], n[6] / 1e6, n[4]);
+    }
+}
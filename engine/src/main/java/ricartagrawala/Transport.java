@@ -0,0 +1,22 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.util.*;
+import java.util.List;
+import java.awt.*;
+
+// Acheminement des messages entre processus. Chaque Process a sa propre instance.
+interface Transport {
+    void start(Process owner) throws IOException;
+    void send(Message msg, int destId);
+
+    // Rafale de messages regroupés par destinataire, envoyée en un seul passage
+    default void sendBatch(Map<Integer, List<Message>> batch) {
+        batch.forEach((destId, msgs) -> {
+            for (Message msg : msgs) send(msg, destId);
+        });
+    }
+
+    // Panne simulée du propriétaire
+    void onCrash();
+}
@@ -0,0 +1,148 @@
+package ricartagrawala;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Charge appliquée aux processus : quand arrivent les demandes de section critique et combien
+// de temps elle est gardée. En boucle fermée (la démo), un nœud « réfléchit » après chaque
+// sortie ; en boucle ouverte, les demandes arrivent à leur rythme, même si les précédentes
+// attendent encore (elles s'accumulent dans la file des acquire()). Les durées sont en ms.
+class Workload {
+    // Loi d'une durée
+    interface Distribution {
+        double sample(Random random);
+    }
+
+    static Distribution uniform(long min, long max) {
+        return r -> min + (max > min ? (long) (r.nextDouble() * (max - min)) : 0);
+    }
+
+    static Distribution exponential(double mean) {
+        return r -> -mean * Math.log(1 - r.nextDouble());
+    }
+
+    // Queue lourde : moyenne alpha·min/(alpha-1), variance infinie si alpha <= 2
+    static Distribution pareto(double alpha, double mean) {
+        double min = mean * (alpha - 1) / alpha;
+        return r -> min / Math.pow(1 - r.nextDouble(), 1 / alpha);
+    }
+
+    // Délais successifs entre deux demandes d'un nœud ; les fractions de ms sont reportées
+    abstract static class Arrivals {
+        private double residue;
+
+        abstract double gap(Random random);
+
+        long next(Random random) {
+            double gap = gap(random) + residue;
+            long whole = (long) gap;
+            residue = gap - whole;
+            return whole;
+        }
+    }
+
+    enum Kind { CLOSED_LOOP, POISSON, BURSTY }
+
+    // Sorties de section critique programmées par les processus en boucle ouverte
+    static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "workload-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Boucle de Process.start() d'origine : 4 à 7 s de repos, 3 à 4 s en section critique
+    static final Workload DEMO = closedLoop(uniform(4000, 7000), uniform(3000, 4000));
+
+    final Kind kind;
+    final Distribution think;  // boucle fermée seulement
+    final Distribution hold;
+    final double rate;         // demandes/s de toute la grappe (boucle ouverte)
+    final double skew;         // exposant de Zipf des débits par nœud, 0 = tous égaux
+    double burstFraction = 0.2;  // BURSTY : part du temps en rafale, seule période d'arrivées
+    double meanBurst = 2000;     // BURSTY : durée moyenne d'une rafale
+
+    private Workload(Kind kind, Distribution think, Distribution hold, double rate, double skew) {
+        this.kind = kind;
+        this.think = think;
+        this.hold = hold;
+        this.rate = rate;
+        this.skew = skew;
+    }
+
+    static Workload closedLoop(Distribution think, Distribution hold) {
+        return new Workload(Kind.CLOSED_LOOP, think, hold, Double.NaN, 0);
+    }
+
+    static Workload poisson(double rate, double skew, Distribution hold) {
+        return new Workload(Kind.POISSON, null, hold, rate, skew);
+    }
+
+    // Rafales : périodes d'activité et de silence de durées exponentielles ; le débit moyen
+    // reste rate, concentré sur burstFraction du temps
+    static Workload bursty(double rate, double skew, Distribution hold) {
+        return new Workload(Kind.BURSTY, null, hold, rate, skew);
+    }
+
+    boolean openLoop() {
+        return kind != Kind.CLOSED_LOOP;
+    }
+
+    // Même charge, autre débit total : pour balayer la charge offerte
+    Workload withRate(double rate) {
+        Workload w = new Workload(kind, think, hold, rate, skew);
+        w.burstFraction = burstFraction;
+        w.meanBurst = meanBurst;
+        return w;
+    }
+
+    // Arrivées du nœud de rang rank (0 = le plus sollicité) parmi count
+    Arrivals arrivals(int rank, int count) {
+        if (kind == Kind.CLOSED_LOOP) {
+            return new Arrivals() {
+                double gap(Random random) {
+                    return think.sample(random);
+                }
+            };
+        }
+        double norm = 0;
+        for (int i = 1; i <= count; i++) norm += Math.pow(i, -skew);
+        double nodeRate = rate * Math.pow(rank + 1, -skew) / norm / 1000;  // demandes par ms
+        if (kind == Kind.POISSON) {
+            return new Arrivals() {
+                double gap(Random random) {
+                    return -Math.log(1 - random.nextDouble()) / nodeRate;
+                }
+            };
+        }
+        double burstRate = nodeRate / burstFraction;
+        double meanQuiet = meanBurst * (1 - burstFraction) / burstFraction;
+        return new Arrivals() {
+            private double burstLeft;
+
+            double gap(Random random) {
+                double gap = 0;
+                while (true) {
+                    if (burstLeft <= 0) {
+                        gap += -meanQuiet * Math.log(1 - random.nextDouble());
+                        burstLeft = -meanBurst * Math.log(1 - random.nextDouble());
+                    }
+                    double next = -Math.log(1 - random.nextDouble()) / burstRate;
+                    if (next <= burstLeft) {
+                        burstLeft -= next;
+                        return gap + next;
+                    }
+                    gap += burstLeft;
+                    burstLeft = 0;
+                }
+            }
+        };
+    }
+
+    long nextHold(Random random) {
+        return Math.round(hold.sample(random));
+    }
+
+    public String toString() {
+        return openLoop() ? String.format("%s %.1f demandes/s, skew %.1f", kind, rate, skew) : kind.toString();
+    }
+}
@@ -0,0 +1,270 @@
+package ricartagrawala;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+// Journal d'écriture anticipée d'un nœud (-Dra.wal.dir) : ce qu'il faut à un redémarrage pour
+// reprendre sa place sans resynchroniser la grappe. Chaque verrou Ricart-Agrawala y note sa
+// demande en cours, les pairs qu'il diffère, son entrée et sa sortie ; l'horloge de Lamport n'y
+// est notée que par paliers (-Dra.wal.clock.step) : au redémarrage elle repart du dernier
+// plafond, au-delà de tout horodatage déjà utilisé. Ajout à la suite dans un fichier projeté en
+// mémoire, comme TraceRecorder, et compacté à chaque ouverture.
+// Avec -Dra.wal.sync (par défaut), un message ne part qu'une fois écrits sur disque les
+// enregistrements qui le précèdent : un thread par journal force les pages d'un seul appel pour
+// tout ce qui s'est accumulé pendant l'écriture précédente (validation groupée), éventuellement
+// après une fenêtre de -Dra.wal.commit.micros. Sans sync, le cache de pages suffit : le journal
+// survit à l'arrêt de la JVM mais pas à celui de la machine.
+// Les verrous Maekawa ne sont pas journalisés : leur état d'arbitre reste en mémoire.
+class WriteAheadLog implements Runnable {
+    static final String DIRECTORY = System.getProperty("ra.wal.dir");
+    static final boolean SYNC = Boolean.parseBoolean(System.getProperty("ra.wal.sync", "true"));
+    static final long COMMIT_NANOS = Long.getLong("ra.wal.commit.micros", 0) * 1000;
+    static final long CLOCK_STEP = Long.getLong("ra.wal.clock.step", 1024);
+    static final long MAGIC = 0x5241_5741_4C30_3031L;  // "RAWAL001"
+    // En-tête : magic(8) version(2) taille d'enregistrement(2) nœud(4)
+    static final int HEADER = 16;
+    // Enregistrement : horodatage(8) pair(4) verrou(4) réservé(6) drapeaux(1) genre+1(1).
+    // Genre à 0 : case jamais écrite, fin du journal.
+    static final int RECORD = 24;
+    private static final long REGION = Long.getLong("ra.wal.region", 1L << 20);
+
+    enum Kind {
+        CLOCK,     // nouveau plafond de l'horloge
+        REQUEST,   // demande du verrou, avec son horodatage (drapeau READ pour une lecture)
+        DEFERRED,  // REQUEST du pair différé jusqu'à notre sortie
+        ENTER,     // entrée en section critique
+        EXIT       // sortie : demande terminée, pairs différés servis
+    }
+
+    // État d'un verrou relu du journal : sa demande en cours et les pairs qu'il diffère
+    static final class LockState {
+        long timestamp;
+        boolean shared;
+        boolean inCS;
+        final Map<Integer, Message> deferred = new LinkedHashMap<>();
+    }
+
+    // Contenu utile d'un journal : plafond de l'horloge et verrous en cours de demande
+    static final class Replay {
+        long ceiling;
+        final Map<Integer, LockState> locks = new TreeMap<>();
+    }
+
+    private static final class Pending {
+        final long seq;
+        final Runnable action;
+
+        Pending(long seq, Runnable action) {
+            this.seq = seq;
+            this.action = action;
+        }
+    }
+
+    private final MappedFile file;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong ceiling = new AtomicLong();
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private volatile long durable;  // enregistrements [0, durable) écrits sur disque
+    private volatile boolean failed;  // disque plein : le journal s'arrête, pas l'algorithme
+    private final IdleWait idle = new IdleWait();
+    private volatile boolean closed;
+    private final Thread committer;
+
+    private WriteAheadLog(FileChannel channel, int nodeId) throws IOException {
+        file = new MappedFile(channel, HEADER, RECORD, REGION);
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putLong(MAGIC).putShort((short) 1).putShort((short) RECORD).putInt(nodeId).flip();
+        channel.write(header, 0);
+        committer = SYNC ? new Thread(this, "wal-" + nodeId) : null;
+        if (committer != null) {
+            committer.setDaemon(true);
+            committer.start();
+        }
+    }
+
+    static Path file(Path dir, int nodeId) {
+        return dir.resolve("node-" + nodeId + ".wal");
+    }
+
+    // Relit le journal du nœud et le remplace par sa version compactée, limitée au plafond de
+    // l'horloge et aux verrous de keep. Sans journal précédent, le plafond est 0.
+    static WriteAheadLog reopen(Path dir, int nodeId, Replay replay, Collection<Integer> keep) throws IOException {
+        Files.createDirectories(dir);
+        Path path = file(dir, nodeId);
+        Path compacted = dir.resolve("node-" + nodeId + ".wal.new");
+        WriteAheadLog wal = new WriteAheadLog(FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE), nodeId);
+        wal.append(Kind.CLOCK, 0, 0, replay.ceiling, 0);
+        wal.ceiling.set(replay.ceiling);
+        for (int lockId : keep) {
+            LockState state = replay.locks.get(lockId);
+            if (state == null) continue;
+            wal.append(Kind.REQUEST, lockId, 0, state.timestamp, state.shared ? Message.READ : 0);
+            for (Message request : state.deferred.values()) {
+                wal.append(Kind.DEFERRED, lockId, request.senderId, request.timestamp, request.flags);
+            }
+            if (state.inCS) wal.append(Kind.ENTER, lockId, 0, 0, 0);
+        }
+        wal.file.force(0, wal.next.get());
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return wal;
+    }
+
+    // Appelé à chaque avance de l'horloge : un enregistrement seulement au franchissement du plafond
+    void clock(long value) {
+        long c = ceiling.get();
+        while (value > c) {
+            if (ceiling.compareAndSet(c, value + CLOCK_STEP)) {
+                append(Kind.CLOCK, 0, 0, value + CLOCK_STEP, 0);
+                return;
+            }
+            c = ceiling.get();
+        }
+    }
+
+    // Réservation par incrément atomique, genre écrit en dernier : une case à moitié écrite
+    // arrête la relecture
+    void append(Kind kind, int lockId, int peer, long timestamp, int flags) {
+        if (failed) return;
+        long index = next.getAndIncrement();
+        MappedByteBuffer region;
+        try {
+            region = file.region(index);
+        } catch (IOException e) {
+            failed = true;
+            LockSupport.unpark(committer);
+            return;
+        }
+        int at = file.offset(index);
+        region.putLong(at, timestamp);
+        region.putInt(at + 8, peer);
+        region.putInt(at + 12, lockId);
+        region.put(at + 22, (byte) flags);
+        region.put(at + 23, (byte) (kind.ordinal() + 1));
+    }
+
+    // Exécute action une fois sur disque tout ce qui a été ajouté jusqu'ici (tout de suite sans sync)
+    void afterCommit(Runnable action) {
+        if (committer == null || closed) {
+            action.run();
+            return;
+        }
+        pending.add(new Pending(next.get(), action));
+        idle.wake(committer);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            boolean last = closed;
+            commit(last);
+            if (last) return;
+            if (pending.isEmpty() && durable == next.get()) {
+                // append() ne réveille pas : ses enregistrements attendent le délai ou le prochain afterCommit
+                idle.park(() -> pending.isEmpty() && !closed);
+            } else if (COMMIT_NANOS > 0) {
+                LockSupport.parkNanos(COMMIT_NANOS);
+            }
+        }
+    }
+
+    // Un seul appel système pour toutes les cases complètes depuis la validation précédente,
+    // puis les actions qu'elles couvrent, dans l'ordre
+    private void commit(boolean all) {
+        long from = durable, to = from, claimed = next.get();
+        try {
+            while (to < claimed && file.region(to).get(file.offset(to) + RECORD - 1) != 0) to++;
+            if (to > from) file.force(from, to);
+        } catch (IOException e) {
+            failed = true;
+        }
+        durable = to;
+        Pending p;
+        while ((p = pending.peek()) != null && (all || failed || p.seq <= to)) {
+            pending.poll();
+            try {
+                p.action.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Valide et exécute tout ce qui est en attente, puis ferme le fichier
+    void close() {
+        closed = true;
+        if (committer != null) {
+            LockSupport.unpark(committer);
+            try {
+                committer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            file.channel.close();
+        } catch (IOException e) {}
+    }
+
+    // Relit le journal d'un nœud jusqu'à sa première case vide ; vide s'il n'existe pas
+    static Replay read(Path dir, int nodeId) throws IOException {
+        Replay replay = new Replay();
+        Path path = file(dir, nodeId);
+        if (!Files.exists(path)) return replay;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readLong() != MAGIC) throw new IOException(path + " n'est pas un journal");
+            in.readShort();
+            int size = in.readShort();
+            in.readInt();
+            byte[] record = new byte[size];
+            ByteBuffer b = ByteBuffer.wrap(record);
+            Kind[] kinds = Kind.values();
+            while (true) {
+                in.readFully(record);
+                if (record[23] == 0) break;
+                long timestamp = b.getLong(0);
+                int peer = b.getInt(8);
+                int lockId = b.getInt(12);
+                int flags = record[22];
+                switch (kinds[record[23] - 1]) {
+                    case CLOCK: replay.ceiling = Math.max(replay.ceiling, timestamp); break;
+                    case REQUEST: {
+                        LockState state = new LockState();
+                        state.timestamp = timestamp;
+                        state.shared = (flags & Message.READ) != 0;
+                        replay.locks.put(lockId, state);
+                        break;
+                    }
+                    case DEFERRED: {
+                        LockState state = replay.locks.get(lockId);
+                        if (state == null) break;
+                        Message request = new Message(Message.Type.REQUEST, peer, timestamp);
+                        request.lockId = lockId;
+                        request.flags = flags;
+                        state.deferred.put(peer, request);
+                        break;
+                    }
+                    case ENTER: {
+                        LockState state = replay.locks.get(lockId);
+                        if (state != null) state.inCS = true;
+                        break;
+                    }
+                    case EXIT: replay.locks.remove(lockId); break;
+                }
+            }
+        } catch (EOFException e) {
+            // journal tronqué dans l'en-tête ou un enregistrement : on garde ce qui a été lu
+        }
+        return replay;
+    }
+}
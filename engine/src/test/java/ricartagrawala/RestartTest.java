@@ -0,0 +1,143 @@
+package ricartagrawala;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+// Panne plus brève que -Dra.suspect.ms du premier nœud démarré, sous une charge soutenue.
+// Les nœuds démarrent l'un après l'autre comme avec --headless : l'annonce du premier part
+// avant que ses pairs n'écoutent, et aucun HEARTBEAT ne suit tant que le trafic coule.
+class RestartTest {
+    private static final int NODES = 9;
+
+    // Compte les entrées et les chevauchements de sections critiques
+    static class ExclusionListener extends CountingListener {
+        final Set<Integer> holders = ConcurrentHashMap.newKeySet();
+        final AtomicLong violations = new AtomicLong();
+
+        @Override
+        public void announceToken(int id) {
+            super.announceToken(id);
+            holders.add(id);
+            if (holders.size() > 1) violations.incrementAndGet();
+        }
+
+        @Override
+        public void updateState(int id, String state, boolean hasToken) {
+            if (!hasToken && state.equals("Repos")) holders.remove(id);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Protocol.class)
+    void shortCrashOfFirstNodeInMemory(Protocol protocol) throws Exception {
+        Map<Integer, Process> network = new ConcurrentHashMap<>();
+        shortCrashOfFirstNode(protocol, id -> new InMemoryTransport(network), "mem:");
+    }
+
+    @Test
+    void shortCrashOfFirstNodeOverTcp() throws Exception {
+        shortCrashOfFirstNode(Protocol.RICART_AGRAWALA, id -> new TcpTransport(), "localhost:");
+    }
+
+    @Test
+    void shortCrashOfFirstNodeOverTcpWithMaekawa() throws Exception {
+        shortCrashOfFirstNode(Protocol.MAEKAWA, id -> new TcpTransport(), "localhost:");
+    }
+
+    // L'annonce du premier nœud part quand aucun pair n'écoute encore : elle est répétée
+    // jusqu'à ce que chacun l'ait acquittée, sans attendre le moindre trafic
+    @Test
+    void announceReachesPeersStartedLater() throws Exception {
+        Map<Integer, Process> network = new ConcurrentHashMap<>();
+        Map<Integer, String> peers = new HashMap<>();
+        for (int i = 1; i <= 5; i++) peers.put(i, "mem:" + i);
+        List<Process> nodes = new ArrayList<>();
+        try {
+            for (int i = 1; i <= 5; i++) {
+                Process p = new Process(i, peers, new CountingListener(), new InMemoryTransport(network));
+                p.console = false;
+                p.logging = false;
+                p.workload = Workload.closedLoop(Workload.uniform(60_000, 60_000), Workload.uniform(1, 1));
+                nodes.add(p);
+                p.start();
+            }
+            Process first = nodes.get(0);
+            Thread.sleep(4 * Process.ANNOUNCE_MS);
+            assertAnnounced(first, nodes);
+
+            first.setAlive(false);
+            first.setAlive(true);
+            Thread.sleep(4 * Process.ANNOUNCE_MS);
+            assertAnnounced(first, nodes);
+        } finally {
+            for (Process p : nodes) p.setAlive(false);
+        }
+    }
+
+    private static void assertAnnounced(Process announcer, List<Process> nodes) {
+        assertTrue(announcer.unacknowledged.isEmpty(), "non acquittée par " + announcer.unacknowledged);
+        for (Process p : nodes) {
+            if (p != announcer) assertEquals(announcer.incarnation, (long) p.incarnations.get(announcer.id), "P" + p.id);
+        }
+    }
+
+    interface Transports {
+        Transport create(int id);
+    }
+
+    private static int nextPort = Integer.getInteger("ra.test.port", 21000);
+
+    private void shortCrashOfFirstNode(Protocol protocol, Transports transports, String scheme) throws Exception {
+        Map<Integer, String> peers = new HashMap<>();
+        for (int i = 1; i <= NODES; i++) peers.put(i, scheme + (nextPort + i));
+        nextPort += NODES;
+        ExclusionListener listener = new ExclusionListener();
+        List<Process> nodes = new ArrayList<>();
+        try {
+            for (int i = 1; i <= NODES; i++) {
+                Process p = new Process(i, peers, listener, transports.create(i));
+                p.protocol = protocol;
+                p.console = false;
+                p.logging = false;
+                p.workload = Workload.closedLoop(Workload.uniform(20, 60), Workload.uniform(5, 10));
+                nodes.add(p);
+                p.start();
+            }
+            Thread.sleep(1500);
+
+            nodes.get(0).setAlive(false);
+            Thread.sleep(100);
+            nodes.get(0).setAlive(true);
+            Thread.sleep(1500);
+
+            long before = listener.total();
+            Map<Integer, Long> entries = entries(listener);
+            Thread.sleep(3000);
+            assertTrue(listener.total() > before, protocol + " : plus aucune entrée après le redémarrage");
+            Map<Integer, Long> after = entries(listener);
+            for (int i = 1; i <= NODES; i++) {
+                assertTrue(after.getOrDefault(i, 0L) > entries.getOrDefault(i, 0L), protocol + " : P" + i + " bloqué");
+            }
+            assertEquals(0, listener.violations.get(), protocol + " : exclusion mutuelle violée");
+        } finally {
+            for (Process p : nodes) p.setAlive(false);
+        }
+    }
+
+    private static Map<Integer, Long> entries(CountingListener listener) {
+        Map<Integer, Long> snapshot = new HashMap<>();
+        listener.entries.forEach((id, n) -> snapshot.put(id, n.sum()));
+        return snapshot;
+    }
+}